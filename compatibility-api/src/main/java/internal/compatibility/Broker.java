@@ -35,7 +35,9 @@ public abstract class Broker {
 
         @Override
         public void setVersion(@NonNull Maven maven, @NonNull Path project, @NonNull Version version) throws IOException {
-            maven.setArtifactVersion(project, artifact, version);
+            if (!PomEditor.setDependencyVersion(project, artifact, version)) {
+                maven.setArtifactVersion(project, artifact, version);
+            }
         }
     }
 }
@@ -0,0 +1,135 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.design.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Temporary installation of the Maven build cache extension in a project.
+ * <p>
+ * The extension is declared in <code>.mvn/extensions.xml</code> and pointed to a shared cache directory in
+ * <code>.mvn/maven.config</code>, so that it works with any Maven launcher. Modules whose inputs are unchanged are
+ * then restored from the cache instead of being rebuilt. Closing the installation restores both files.
+ *
+ * @see <a href="https://maven.apache.org/extensions/maven-build-cache-extension/">Maven build cache extension</a>
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class BuildCacheExtension implements Closeable {
+
+    public static final String MIN_MAVEN_VERSION = "3.9";
+
+    /**
+     * Checks if a version of Maven loads the extension.
+     *
+     * @param mavenVersion the version of Maven
+     * @return true if the extension can be installed, false otherwise
+     */
+    public static boolean isSupportedBy(@NonNull CharSequence mavenVersion) {
+        int[] actual = parseMajorMinor(mavenVersion.toString());
+        int[] expected = parseMajorMinor(MIN_MAVEN_VERSION);
+        return actual != null && (actual[0] != expected[0] ? actual[0] > expected[0] : actual[1] >= expected[1]);
+    }
+
+    public static @NonNull BuildCacheExtension install(@NonNull Path project, @NonNull Path cacheDir) throws IOException {
+        Path mvnDir = project.resolve(MVN_DIR);
+        boolean createdDir = !Files.exists(mvnDir);
+        Files.createDirectories(mvnDir);
+
+        Path extensionsFile = mvnDir.resolve(EXTENSIONS_FILE);
+        byte[] extensions = readIfExists(extensionsFile);
+        Path configFile = mvnDir.resolve(CONFIG_FILE);
+        byte[] config = readIfExists(configFile);
+
+        BuildCacheExtension result = new BuildCacheExtension(mvnDir, createdDir, extensions, config);
+        try {
+            Files.write(extensionsFile, addExtension(extensions != null ? new String(extensions, UTF_8) : null).getBytes(UTF_8));
+            Files.write(configFile, addConfig(config != null ? new String(config, UTF_8) : null, Files.createDirectories(cacheDir)).getBytes(UTF_8));
+        } catch (IOException | RuntimeException ex) {
+            result.close();
+            throw ex;
+        }
+        return result;
+    }
+
+    private final Path mvnDir;
+    private final boolean createdDir;
+    private final byte @Nullable [] extensions;
+    private final byte @Nullable [] config;
+
+    @Override
+    public void close() throws IOException {
+        restore(mvnDir.resolve(EXTENSIONS_FILE), extensions);
+        restore(mvnDir.resolve(CONFIG_FILE), config);
+        if (createdDir) {
+            Files.deleteIfExists(mvnDir);
+        }
+    }
+
+    @VisibleForTesting
+    static String addExtension(@Nullable String extensions) throws IOException {
+        if (extensions == null) {
+            return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<extensions>\n" + EXTENSION + "</extensions>\n";
+        }
+        if (extensions.contains("<artifactId>" + ARTIFACT_ID + "</artifactId>")) {
+            return extensions;
+        }
+        int index = extensions.lastIndexOf("</extensions>");
+        if (index == -1) {
+            throw new IOException("Invalid extensions file: missing </extensions>");
+        }
+        return extensions.substring(0, index) + EXTENSION + extensions.substring(index);
+    }
+
+    private static String addConfig(@Nullable String config, Path cacheDir) {
+        // one argument per line so that the cache location may contain spaces
+        StringBuilder result = new StringBuilder();
+        if (config != null && !config.trim().isEmpty()) {
+            result.append(config);
+            if (!config.endsWith("\n")) {
+                result.append('\n');
+            }
+        }
+        return result
+                .append("-Dmaven.build.cache.enabled=true\n")
+                .append("-Dmaven.build.cache.location=").append(cacheDir.toAbsolutePath()).append('\n')
+                .toString();
+    }
+
+    private static int @Nullable [] parseMajorMinor(String version) {
+        Matcher matcher = MAJOR_MINOR.matcher(version);
+        return matcher.lookingAt() ? new int[]{Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))} : null;
+    }
+
+    private static byte @Nullable [] readIfExists(Path file) throws IOException {
+        return Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+    }
+
+    private static void restore(Path file, byte @Nullable [] content) throws IOException {
+        if (content != null) {
+            Files.write(file, content);
+        } else {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static final Pattern MAJOR_MINOR = Pattern.compile("(\\d+)\\.(\\d+)");
+    private static final String MVN_DIR = ".mvn";
+    private static final String EXTENSIONS_FILE = "extensions.xml";
+    private static final String CONFIG_FILE = "maven.config";
+    private static final String ARTIFACT_ID = "maven-build-cache-extension";
+    private static final String VERSION = "1.2.0";
+    private static final String EXTENSION = "  <extension>\n"
+            + "    <groupId>org.apache.maven.extensions</groupId>\n"
+            + "    <artifactId>" + ARTIFACT_ID + "</artifactId>\n"
+            + "    <version>" + VERSION + "</version>\n"
+            + "  </extension>\n";
+}
@@ -9,6 +9,7 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.StreamSupport;
 
 import static java.nio.file.Files.createDirectories;
@@ -36,6 +37,23 @@ public final class Files2 {
         });
     }
 
+    public static long getSize(@NonNull Path start) throws IOException {
+        AtomicLong result = new AtomicLong();
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                result.addAndGet(attrs.size());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return result.get();
+    }
+
     public static boolean hasExtension(@NonNull Path file, @NonNull String extension) {
         return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(extension);
     }
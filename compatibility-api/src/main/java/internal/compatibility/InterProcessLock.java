@@ -0,0 +1,76 @@
+package internal.compatibility;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Exclusive lock on a file shared by threads and processes.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+final class InterProcessLock implements Closeable {
+
+    // file locks are held by the whole JVM so they must be combined with in-process locks
+    private static final Map<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * Acquires the lock on a file.
+     *
+     * @param lockFile the lock file, created if needed
+     * @param wait true to wait for the lock, false to give up if it is not available
+     * @return the lock or null if it is not available and wait is false
+     * @throws IOException if the lock file cannot be opened
+     */
+    static @Nullable InterProcessLock acquire(Path lockFile, boolean wait) throws IOException {
+        ReentrantLock lock = LOCKS.computeIfAbsent(lockFile.toAbsolutePath(), ignore -> new ReentrantLock());
+        if (lock.isHeldByCurrentThread()) {
+            // file locks are not reentrant
+            if (wait) {
+                throw new IOException("Lock already held by current thread: " + lockFile);
+            }
+            return null;
+        }
+        if (wait) {
+            lock.lock();
+        } else if (!lock.tryLock()) {
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile, CREATE, WRITE);
+            FileLock fileLock = wait ? channel.lock() : channel.tryLock();
+            if (fileLock == null) {
+                channel.close();
+                lock.unlock();
+                return null;
+            }
+            return new InterProcessLock(lock, channel);
+        } catch (IOException | RuntimeException ex) {
+            if (channel != null) channel.close();
+            lock.unlock();
+            throw ex;
+        }
+    }
+
+    private final ReentrantLock lock;
+    private final FileChannel channel;
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.compatibility.*;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static java.lang.System.lineSeparator;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Report of a check in progress, stored after each completed item so that an interrupted check can be resumed.
+ * <p>
+ * Each item is appended to the file as a single-line report, such as JSON lines, so that storing an item doesn't
+ * depend on the number of items already stored. The file is compacted when it is loaded.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class Journal {
+
+    public static @NonNull Journal open(@NonNull Path file, @NonNull Parser<Report> parser, @NonNull Formatter<Report> formatter, boolean resume) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Journal result = new Journal(file, formatter);
+        if (resume && Files.exists(file)) {
+            List<String> lines = Files.readAllLines(file, UTF_8);
+            for (int i = 0; i < lines.size(); i++) {
+                if (!lines.get(i).trim().isEmpty()) {
+                    try {
+                        parser.parse(new StringReader(lines.get(i))).getItems().forEach(result::load);
+                    } catch (IOException | RuntimeException ex) {
+                        // the last line might have been interrupted
+                        if (i < lines.size() - 1) {
+                            throw new IOException("Cannot parse journal " + file + " at line " + (i + 1), ex);
+                        }
+                    }
+                }
+            }
+            result.compact();
+        } else {
+            Files.deleteIfExists(file);
+        }
+        return result;
+    }
+
+    private final Path file;
+    private final Formatter<Report> formatter;
+    private final Map<Key, ReportItem> completed = new ConcurrentHashMap<>();
+    private final List<ReportItem> items = new ArrayList<>();
+
+    public int size() {
+        return completed.size();
+    }
+
+    public @Nullable ReportItem get(@NonNull URI sourceUri, @NonNull RefVersion sourceVersion, @NonNull URI targetUri, @NonNull RefVersion targetVersion) {
+        return completed.get(new Key(sourceUri, sourceVersion, targetUri, targetVersion));
+    }
+
+    public synchronized void add(@NonNull ReportItem item) throws IOException {
+        if (load(item)) {
+            try (Writer writer = Files.newBufferedWriter(file, UTF_8, CREATE, APPEND)) {
+                writer.write(toLine(item));
+            }
+        }
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private synchronized boolean load(ReportItem item) {
+        if (completed.put(Key.of(item), item) == null) {
+            items.add(item);
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void compact() throws IOException {
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "journal", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, UTF_8)) {
+            for (ReportItem item : items) {
+                writer.write(toLine(item));
+            }
+        }
+        Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private String toLine(ReportItem item) throws IOException {
+        StringWriter result = new StringWriter();
+        formatter.format(Report.builder().item(item).build(), result);
+        // line breaks and indentation are not significant in structured formats such as JSON
+        return LINE_BREAK.matcher(result.toString()).replaceAll("") + lineSeparator();
+    }
+
+    private static final Pattern LINE_BREAK = Pattern.compile("\\R\\s*");
+
+    @lombok.Value
+    private static class Key {
+
+        static Key of(ReportItem item) {
+            return new Key(item.getSourceUri(), item.getSourceVersion(), item.getTargetUri(), item.getTargetVersion());
+        }
+
+        URI sourceUri;
+        RefVersion sourceVersion;
+        URI targetUri;
+        RefVersion targetVersion;
+    }
+}
@@ -0,0 +1,121 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Persistent directory of entries evicted in least recently used order.
+ * <p>
+ * Each entry is a directory named after the hash of its key and guarded by a lock file whose last modified time
+ * records its last use, so that concurrent runs can share the directory. Entries may have companion files that are
+ * deleted along with them.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+final class LruDirectory {
+
+    static @NonNull LruDirectory open(@NonNull Path dir, long maxSize, @NonNull String entrySuffix, @NonNull String... companionSuffixes) throws IOException {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        Files.createDirectories(dir);
+        return new LruDirectory(dir, maxSize, entrySuffix, Arrays.asList(companionSuffixes));
+    }
+
+    private final Path dir;
+    private final long maxSize;
+    private final String entrySuffix;
+    private final List<String> companionSuffixes;
+
+    static @NonNull String getName(@NonNull URI uri) {
+        return Hashes.sha256(uri.toString());
+    }
+
+    @NonNull
+    Path getEntry(@NonNull String name) {
+        return dir.resolve(name + entrySuffix);
+    }
+
+    @NonNull
+    Path getFile(@NonNull String name, @NonNull String suffix) {
+        return dir.resolve(name + suffix);
+    }
+
+    @NonNull
+    Path getLockFile(@NonNull String name) {
+        return getFile(name, LOCK_SUFFIX);
+    }
+
+    void touch(@NonNull String name) throws IOException {
+        Files.setLastModifiedTime(getLockFile(name), FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    /**
+     * Evicts the least recently used entries until the directory fits its maximum size.
+     * Entries that are locked by another thread or process are skipped.
+     *
+     * @param current the name of the entry that must be kept
+     * @throws IOException if the directory cannot be read or an entry cannot be deleted
+     */
+    void evict(@NonNull String current) throws IOException {
+        List<Entry> entries = getEntries();
+        long totalSize = entries.stream().mapToLong(Entry::getSize).sum();
+        for (Entry entry : entries) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            if (entry.getName().equals(current)) {
+                continue;
+            }
+            try (InterProcessLock lock = InterProcessLock.acquire(getLockFile(entry.getName()), false)) {
+                if (lock != null) {
+                    for (String suffix : companionSuffixes) {
+                        Files.deleteIfExists(getFile(entry.getName(), suffix));
+                    }
+                    Files2.deleteRecursively(getEntry(entry.getName()));
+                    totalSize -= entry.getSize();
+                }
+            }
+        }
+    }
+
+    private List<Entry> getEntries() throws IOException {
+        List<Entry> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path entry : files.filter(this::isEntry).collect(toList())) {
+                String name = entry.getFileName().toString();
+                name = name.substring(0, name.length() - entrySuffix.length());
+                Path lockFile = getLockFile(name);
+                FileTime lastUse = Files.exists(lockFile) ? Files.getLastModifiedTime(lockFile) : FileTime.fromMillis(0);
+                result.add(new Entry(name, lastUse, Files2.getSize(entry)));
+            }
+        }
+        result.sort(Comparator.comparing(Entry::getLastUse));
+        return result;
+    }
+
+    private boolean isEntry(Path file) {
+        return Files.isDirectory(file) && file.getFileName().toString().endsWith(entrySuffix);
+    }
+
+    @lombok.Value
+    private static class Entry {
+
+        String name;
+        FileTime lastUse;
+        long size;
+    }
+
+    private static final String LOCK_SUFFIX = ".lock";
+}
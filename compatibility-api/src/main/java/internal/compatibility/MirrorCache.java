@@ -0,0 +1,38 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.compatibility.spi.Git;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Persistent cache of bare mirrors of remote projects.
+ * <p>
+ * Mirrors are updated with an incremental fetch and per-run clones are made from them, which hardlinks the objects.
+ * Each mirror is guarded by a file lock so that concurrent runs can share the cache.
+ * Least recently used mirrors are evicted when the cache exceeds its maximum size.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class MirrorCache {
+
+    public static @NonNull MirrorCache open(@NonNull Path dir, long maxSize) throws IOException {
+        return new MirrorCache(LruDirectory.open(dir, maxSize, MIRROR_SUFFIX));
+    }
+
+    private final LruDirectory mirrors;
+
+    public void clone(@NonNull Git git, @NonNull URI from, @NonNull Path to) throws IOException {
+        String name = LruDirectory.getName(from);
+        try (InterProcessLock ignore = InterProcessLock.acquire(mirrors.getLockFile(name), true)) {
+            Path mirror = mirrors.getEntry(name);
+            git.mirror(from, mirror);
+            mirrors.touch(name);
+            git.clone(mirror.toUri(), to);
+        }
+        mirrors.evict(name);
+    }
+
+    private static final String MIRROR_SUFFIX = ".git";
+}
@@ -0,0 +1,369 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.compatibility.Artifact;
+import nbbrd.compatibility.Version;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * In-process replacement of <code>versions:use-dep-version</code>.
+ * <p>
+ * Dependency versions are rewritten in place in the POM files of a reactor so that the formatting is kept as is.
+ * It handles literal versions and versions defined by a property of the reactor, in plain dependencies as well as in
+ * dependency management. Nothing is written if any matching dependency uses an expression it cannot resolve.
+ * <p>
+ * The same reactor analysis finds the modules affected by a change of dependency version.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class PomEditor {
+
+    /**
+     * Sets the version of the dependencies matching an artifact in a reactor.
+     *
+     * @param project the project directory or its POM file
+     * @param artifact the artifact pattern
+     * @param version the new version
+     * @return true if the versions have been set, false if it must be done by Maven
+     * @throws IOException if the POM files cannot be read or written
+     */
+    public static boolean setDependencyVersion(@NonNull Path project, @NonNull Artifact artifact, @NonNull Version version) throws IOException {
+        Path root = Files.isDirectory(project) ? project.resolve(POM_FILE) : project;
+        if (!Files.isRegularFile(root)) {
+            return false;
+        }
+
+        Map<Path, Pom> reactor = new LinkedHashMap<>();
+        if (!loadReactor(root, reactor)) {
+            return false;
+        }
+
+        Predicate<Artifact> filter = artifact.toFilter();
+        Predicate<Artifact> anyVersion = artifact.toBuilder().version("").build().toFilter();
+
+        Map<Pom, Map<Integer, Edit>> edits = new LinkedHashMap<>();
+        for (Pom pom : reactor.values()) {
+            for (Dependency dependency : pom.getDependencies()) {
+                if (dependency.getVersion() == null || !anyVersion.test(dependency.toArtifact(""))) {
+                    continue;
+                }
+                Edit edit = getVersionEdit(reactor, pom, dependency.getVersion());
+                if (edit == null) {
+                    return false;
+                }
+                if (filter.test(dependency.toArtifact(edit.getCurrent()))) {
+                    edits.computeIfAbsent(edit.getPom(), ignore -> new TreeMap<>()).put(edit.getValue().getStart(), edit);
+                }
+            }
+        }
+
+        if (edits.isEmpty()) {
+            return false;
+        }
+
+        for (Map.Entry<Pom, Map<Integer, Edit>> entry : edits.entrySet()) {
+            entry.getKey().write(entry.getValue().values(), version.toString());
+        }
+        return true;
+    }
+
+    /**
+     * Finds the modules of a reactor that declare a dependency on an artifact, regardless of its version.
+     * The modules that depend on them are not listed since Maven can select them by itself.
+     * <p>
+     * The whole reactor is affected if the version is managed, defined by a property or missing since it then also
+     * applies to the modules that get the artifact transitively, which cannot be found without resolving dependencies.
+     *
+     * @param project the project directory
+     * @param artifact the artifact pattern
+     * @return the relative paths of the modules, empty if the whole reactor is affected or if it cannot be determined
+     * @throws IOException if the POM files cannot be read
+     */
+    public static @NonNull List<String> getAffectedModules(@NonNull Path project, @NonNull Artifact artifact) throws IOException {
+        Path root = project.resolve(POM_FILE);
+        if (!Files.isRegularFile(root)) {
+            return Collections.emptyList();
+        }
+
+        Map<Path, Pom> reactor = new LinkedHashMap<>();
+        if (!loadReactor(root, reactor) || reactor.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        Predicate<Artifact> anyVersion = artifact.toBuilder().version("").build().toFilter();
+        Path rootDir = root.toAbsolutePath().normalize().getParent();
+
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<Path, Pom> entry : reactor.entrySet()) {
+            List<Dependency> used = filterDependencies(entry.getValue().getUsedDependencies(), anyVersion);
+            if (filterDependencies(entry.getValue().getDependencies(), anyVersion).size() > used.size()
+                    || used.stream().anyMatch(dependency -> !hasLiteralVersion(dependency))) {
+                return Collections.emptyList();
+            }
+            if (!used.isEmpty()) {
+                Path moduleDir = entry.getKey().getParent();
+                if (moduleDir.equals(rootDir) || !entry.getKey().getFileName().toString().equals(POM_FILE)) {
+                    // the root module and modules with custom POM files cannot be selected by path
+                    return Collections.emptyList();
+                }
+                result.add(rootDir.relativize(moduleDir).toString().replace('\\', '/'));
+            }
+        }
+        // nothing is found if the dependency is inherited from outside the reactor or brought transitively
+        return result;
+    }
+
+    private static List<Dependency> filterDependencies(List<Dependency> dependencies, Predicate<Artifact> filter) {
+        List<Dependency> result = new ArrayList<>();
+        for (Dependency dependency : dependencies) {
+            if (filter.test(dependency.toArtifact(""))) {
+                result.add(dependency);
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasLiteralVersion(Dependency dependency) {
+        return dependency.getVersion() != null && !dependency.getVersion().getText().contains("${");
+    }
+
+    private static boolean loadReactor(Path file, Map<Path, Pom> reactor) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        if (reactor.containsKey(key)) {
+            return true;
+        }
+        Pom pom = Pom.load(key);
+        if (pom == null) {
+            return false;
+        }
+        reactor.put(key, pom);
+        for (String module : pom.getModules()) {
+            if (module.contains("${")) {
+                return false;
+            }
+            Path moduleFile = key.getParent().resolve(module);
+            if (Files.isDirectory(moduleFile)) {
+                moduleFile = moduleFile.resolve(POM_FILE);
+            }
+            if (!Files.isRegularFile(moduleFile) || !loadReactor(moduleFile, reactor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static @Nullable Edit getVersionEdit(Map<Path, Pom> reactor, Pom pom, Element version) {
+        String text = version.getText();
+        if (!text.contains("${")) {
+            return new Edit(pom, version, text);
+        }
+        Matcher matcher = PROPERTY_REFERENCE.matcher(text);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String name = matcher.group(1);
+        for (Pom current = pom; current != null; current = current.getParent(reactor)) {
+            Element property = current.getProperty(name);
+            if (property != null) {
+                return !property.getText().contains("${") ? new Edit(current, property, property.getText()) : null;
+            }
+        }
+        return null;
+    }
+
+    @lombok.Value
+    private static class Edit {
+
+        Pom pom;
+        Element value;
+        String current;
+    }
+
+    @lombok.Value
+    private static class Element {
+
+        int start;
+        int end;
+        String text;
+    }
+
+    @lombok.Value
+    private static class Dependency {
+
+        String groupId;
+        String artifactId;
+        String type;
+        String classifier;
+        @Nullable
+        Element version;
+
+        Artifact toArtifact(String resolvedVersion) {
+            return Artifact.builder().groupId(groupId).artifactId(artifactId).type(type).classifier(classifier).version(resolvedVersion).build();
+        }
+    }
+
+    @lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    private static final class Pom {
+
+        static @Nullable Pom load(Path file) throws IOException {
+            String content;
+            try {
+                content = UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT)
+                        .decode(ByteBuffer.wrap(Files.readAllBytes(file)))
+                        .toString();
+            } catch (CharacterCodingException ex) {
+                return null;
+            }
+            Matcher encoding = XML_ENCODING.matcher(content);
+            if (encoding.lookingAt() && !encoding.group(1).equalsIgnoreCase("UTF-8")) {
+                return null;
+            }
+            return new Pom(file, content, mask(content, COMMENT));
+        }
+
+        private final Path file;
+        private final String content;
+        private final String masked;
+
+        List<String> getModules() {
+            List<String> result = new ArrayList<>();
+            String modules = mask(mask(masked, PROFILES), PLUGINS);
+            for (Element block : findBlocks(modules, "modules")) {
+                for (Element module : findBlocks(block.getText(), "module")) {
+                    result.add(module.getText().trim());
+                }
+            }
+            return result;
+        }
+
+        List<Dependency> getDependencies() {
+            List<Dependency> result = new ArrayList<>();
+            String dependencies = mask(masked, PLUGINS);
+            for (Element block : findBlocks(dependencies, "dependency")) {
+                String text = mask(block.getText(), EXCLUSIONS);
+                String groupId = getChildText(text, block.getStart(), "groupId", "");
+                String artifactId = getChildText(text, block.getStart(), "artifactId", "");
+                if (groupId.contains("${") || artifactId.contains("${")) {
+                    // expressions such as ${project.groupId} refer to modules of the reactor
+                    continue;
+                }
+                result.add(new Dependency(
+                        groupId,
+                        artifactId,
+                        getChildText(text, block.getStart(), "type", "jar"),
+                        getChildText(text, block.getStart(), "classifier", ""),
+                        getChild(text, block.getStart(), "version")
+                ));
+            }
+            return result;
+        }
+
+        List<Dependency> getUsedDependencies() {
+            // managed dependencies are not used by the module itself
+            return new Pom(file, content, mask(masked, DEPENDENCY_MANAGEMENT)).getDependencies();
+        }
+
+        @Nullable
+        Element getProperty(String name) {
+            String properties = mask(mask(masked, PROFILES), PLUGINS);
+            for (Element block : findBlocks(properties, "properties")) {
+                Element result = getChild(block.getText(), block.getStart(), name);
+                if (result != null) {
+                    return result;
+                }
+            }
+            return null;
+        }
+
+        @Nullable
+        Pom getParent(Map<Path, Pom> reactor) {
+            String parents = mask(mask(masked, PROFILES), PLUGINS);
+            for (Element block : findBlocks(parents, "parent")) {
+                String relativePath = getChildText(block.getText(), block.getStart(), "relativePath", "../pom.xml");
+                if (relativePath.isEmpty()) {
+                    return null;
+                }
+                Path parent = file.getParent().resolve(relativePath);
+                if (Files.isDirectory(parent)) {
+                    parent = parent.resolve(POM_FILE);
+                }
+                return reactor.get(parent.toAbsolutePath().normalize());
+            }
+            return null;
+        }
+
+        void write(Collection<Edit> edits, String version) throws IOException {
+            StringBuilder result = new StringBuilder(content);
+            List<Edit> list = new ArrayList<>(edits);
+            Collections.reverse(list);
+            for (Edit edit : list) {
+                result.replace(edit.getValue().getStart(), edit.getValue().getEnd(), version);
+            }
+            String modified = result.toString();
+            if (!modified.equals(content)) {
+                Files.write(file, modified.getBytes(UTF_8));
+            }
+        }
+
+        private String getChildText(String block, int offset, String name, String defaultValue) {
+            Element child = getChild(block, offset, name);
+            return child != null ? child.getText() : defaultValue;
+        }
+
+        private Element getChild(String block, int offset, String name) {
+            Matcher matcher = Pattern.compile("<" + Pattern.quote(name) + "\\s*>([^<]*)</" + Pattern.quote(name) + "\\s*>").matcher(block);
+            if (!matcher.find()) {
+                return null;
+            }
+            int start = offset + matcher.start(1);
+            int end = offset + matcher.end(1);
+            String raw = content.substring(start, end);
+            String text = raw.trim();
+            int leading = raw.indexOf(text);
+            return new Element(start + leading, start + leading + text.length(), text);
+        }
+
+        private static List<Element> findBlocks(String text, String name) {
+            List<Element> result = new ArrayList<>();
+            Matcher matcher = Pattern.compile("<" + Pattern.quote(name) + "\\s*>(.*?)</" + Pattern.quote(name) + "\\s*>", Pattern.DOTALL).matcher(text);
+            while (matcher.find()) {
+                result.add(new Element(matcher.start(1), matcher.end(1), matcher.group(1)));
+            }
+            return result;
+        }
+
+        private static String mask(String text, Pattern pattern) {
+            Matcher matcher = pattern.matcher(text);
+            StringBuilder result = new StringBuilder(text);
+            while (matcher.find()) {
+                for (int i = matcher.start(); i < matcher.end(); i++) {
+                    if (result.charAt(i) != '\n') result.setCharAt(i, ' ');
+                }
+            }
+            return result.toString();
+        }
+    }
+
+    private static final String POM_FILE = "pom.xml";
+    private static final Pattern COMMENT = Pattern.compile("<!--.*?-->|<!\\[CDATA\\[.*?]]>", Pattern.DOTALL);
+    private static final Pattern PLUGINS = Pattern.compile("<plugins\\s*>.*?</plugins\\s*>", Pattern.DOTALL);
+    private static final Pattern EXCLUSIONS = Pattern.compile("<exclusions\\s*>.*?</exclusions\\s*>", Pattern.DOTALL);
+    private static final Pattern DEPENDENCY_MANAGEMENT = Pattern.compile("<dependencyManagement\\s*>.*?</dependencyManagement\\s*>", Pattern.DOTALL);
+    private static final Pattern PROFILES = Pattern.compile("<profiles\\s*>.*?</profiles\\s*>", Pattern.DOTALL);
+    private static final Pattern PROPERTY_REFERENCE = Pattern.compile("\\$\\{([^${}]+)}");
+    private static final Pattern XML_ENCODING = Pattern.compile("\\s*<\\?xml[^>]*encoding=[\"']([^\"']+)[\"']");
+}
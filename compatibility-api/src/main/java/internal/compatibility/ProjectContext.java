@@ -1,10 +1,13 @@
 package internal.compatibility;
 
 import lombok.NonNull;
+import nbbrd.compatibility.Filter;
 import nbbrd.compatibility.Project;
 import nbbrd.compatibility.Ref;
 import nbbrd.compatibility.RefVersion;
+import nbbrd.compatibility.Version;
 import nbbrd.compatibility.spi.Build;
+import nbbrd.compatibility.spi.Git;
 import nbbrd.design.SealedType;
 
 import java.io.IOException;
@@ -30,6 +33,32 @@ public interface ProjectContext {
         Files2.deleteRecursively(getDirectory());
     }
 
+    default void clean(@NonNull Git git, @NonNull WorkspaceCleaner cleaner) throws IOException {
+        git.release(getDirectory());
+        cleaner.delete(getDirectory());
+    }
+
+    @FunctionalInterface
+    interface Cloner {
+
+        /**
+         * Clones a remote project into a workspace.
+         *
+         * @param from the project URI
+         * @param filter the filter of the tags that will be checked
+         * @return the directory of the workspace
+         * @throws IOException if the project cannot be cloned
+         */
+        @NonNull
+        Path clone(@NonNull URI from, @NonNull Filter filter) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Materializer {
+
+        void materialize(@NonNull Path from, @NonNull Path to) throws IOException;
+    }
+
     interface Builder<T extends Builder<T>> {
 
         T uri(@NonNull URI uri);
@@ -38,17 +67,23 @@ public interface ProjectContext {
 
         T version(@NonNull RefVersion version);
 
-        default T init(Project project, boolean local, Path workingDir, Build build) throws IOException {
-            Path directory = Files.createTempDirectory(workingDir, "project");
-            directory(directory);
+        default T init(Project project, boolean local, Path workingDir, Build build, ProjectVersionResolver resolver, Cloner cloner, Materializer materializer) throws IOException {
             if (local) {
-                Files2.copyRecursively(Paths.get(project.getUri()), directory);
-                version(RefVersion.local(build.getProjectVersion(directory)));
+                Path directory = Files.createTempDirectory(workingDir, "project");
+                directory(directory);
+                materializer.materialize(Paths.get(project.getUri()), directory);
+                version(RefVersion.local(resolver.getProjectVersion(build, directory)));
             } else {
-                build.clone(project.getUri(), directory);
-                for (Ref ref : project.getFilter().apply(build.getTags(directory))) {
-                    build.checkoutTag(directory, ref);
-                    version(RefVersion.remote(build.getProjectVersion(directory), ref));
+                Path directory = cloner.clone(project.getUri(), project.getFilter());
+                directory(directory);
+                for (Ref ref : build.getTags(directory, project.getFilter())) {
+                    Version version = resolver.getProjectVersion(
+                            path -> build.readFile(directory, ref, path),
+                            () -> {
+                                build.checkoutTag(directory, ref);
+                                return build.getProjectVersion(directory);
+                            });
+                    version(RefVersion.remote(version, ref));
                 }
             }
             return uri(project.getUri());
@@ -0,0 +1,295 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.compatibility.Version;
+import nbbrd.compatibility.spi.Maven;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.function.IOFunction;
+import nbbrd.io.function.IOSupplier;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * In-process replacement of <code>help:evaluate -Dexpression=project.version</code>.
+ * <p>
+ * The version is read from the POM file, its local parent chain and the CI-friendly properties of
+ * <code>.mvn/maven.config</code>. Maven is only used when an expression cannot be resolved.
+ * Results are memoized by the content of the files involved.
+ */
+public final class ProjectVersionResolver {
+
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    public @NonNull Version getProjectVersion(@NonNull Maven maven, @NonNull Path project) throws IOException {
+        return getProjectVersion(path -> readIfExists(project.resolve(path)), () -> maven.getProjectVersion(project));
+    }
+
+    /**
+     * Gets the version of a project from its files.
+     *
+     * @param files a function that reads a file relative to the project root or returns null if it doesn't exist
+     * @param fallback the Maven evaluation used when the version cannot be resolved in-process
+     * @return a non-null version
+     * @throws IOException if the files cannot be read or the fallback fails
+     */
+    public @NonNull Version getProjectVersion(@NonNull IOFunction<String, byte[]> files, @NonNull IOSupplier<Version> fallback) throws IOException {
+        byte[] config = files.applyWithIO(MAVEN_CONFIG);
+        List<byte[]> contents = new ArrayList<>();
+        List<Pom> chain = loadChain(files, contents);
+        if (chain.isEmpty()) {
+            return fallback.getWithIO();
+        }
+
+        String key = getKey(config, contents);
+        Version result = versions.get(key);
+        if (result == null) {
+            String text = resolveVersion(chain, config != null ? parseMavenConfig(new String(config, UTF_8)) : Collections.emptyMap());
+            result = text != null ? Version.parse(text) : fallback.getWithIO();
+            versions.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    private static List<Pom> loadChain(IOFunction<String, byte[]> files, List<byte[]> contents) throws IOException {
+        List<Pom> result = new ArrayList<>();
+        String path = POM_FILE;
+        while (path != null && result.size() < MAX_DEPTH) {
+            byte[] content = files.applyWithIO(path);
+            if (content == null) {
+                break;
+            }
+            Pom pom = Pom.parse(new String(content, UTF_8));
+            if (!result.isEmpty() && !Objects.equals(pom.get("artifactId"), result.get(result.size() - 1).get("parent/artifactId"))) {
+                break;
+            }
+            result.add(pom);
+            contents.add(content);
+            path = getParentPath(path, pom);
+        }
+        return result;
+    }
+
+    private static @Nullable String getParentPath(String path, Pom pom) {
+        if (!pom.contains("parent")) {
+            return null;
+        }
+        String relativePath = pom.getOrDefault("parent/relativePath", "../" + POM_FILE);
+        if (relativePath.isEmpty()) {
+            return null;
+        }
+        String result = resolvePath(path, relativePath);
+        return result != null && !result.endsWith(".xml") ? (result.isEmpty() ? POM_FILE : result + "/" + POM_FILE) : result;
+    }
+
+    @VisibleForTesting
+    static @Nullable String resolvePath(String file, String relativePath) {
+        Deque<String> result = new ArrayDeque<>(Arrays.asList(file.split("[/\\\\]")));
+        result.removeLast();
+        for (String item : relativePath.split("[/\\\\]")) {
+            if (item.isEmpty() || item.equals(".")) {
+                continue;
+            }
+            if (item.equals("..")) {
+                if (result.isEmpty()) return null;
+                result.removeLast();
+            } else {
+                result.addLast(item);
+            }
+        }
+        return String.join("/", result);
+    }
+
+    @VisibleForTesting
+    static @Nullable String resolveVersion(List<Pom> chain, Map<String, String> userProperties) {
+        Pom project = chain.get(0);
+        String version = project.getOrDefault("version", project.get("parent/version"));
+        if (version == null) {
+            return null;
+        }
+
+        Map<String, String> properties = new HashMap<>();
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            properties.putAll(chain.get(i).getProperties());
+        }
+        String parentVersion = project.get("parent/version");
+        if (parentVersion != null) {
+            properties.put("project.parent.version", parentVersion);
+            properties.put("parent.version", parentVersion);
+        }
+        properties.putAll(userProperties);
+
+        return interpolate(version, properties, 0);
+    }
+
+    private static @Nullable String interpolate(String text, Map<String, String> properties, int depth) {
+        if (!text.contains("${")) {
+            return text;
+        }
+        if (depth >= MAX_DEPTH) {
+            return null;
+        }
+        Matcher matcher = PROPERTY_REFERENCE.matcher(text);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            String value = properties.get(matcher.group(1));
+            if (value == null) {
+                return null;
+            }
+            value = interpolate(value, properties, depth + 1);
+            if (value == null) {
+                return null;
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        String output = result.toString();
+        return output.contains("${") ? null : output;
+    }
+
+    @VisibleForTesting
+    static Map<String, String> parseMavenConfig(String text) {
+        Map<String, String> result = new HashMap<>();
+        String[] tokens = text.trim().split("\\s+");
+        for (int i = 0; i < tokens.length; i++) {
+            String token = unquote(tokens[i]);
+            String property = null;
+            if (token.equals("-D") && i + 1 < tokens.length) {
+                property = unquote(tokens[++i]);
+            } else if (token.startsWith("-D")) {
+                property = token.substring(2);
+            }
+            if (property != null && !property.isEmpty()) {
+                int index = property.indexOf('=');
+                if (index == -1) {
+                    result.put(property, "true");
+                } else {
+                    result.put(property.substring(0, index), unquote(property.substring(index + 1)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String unquote(String text) {
+        return text.length() >= 2 && (text.startsWith("\"") && text.endsWith("\"") || text.startsWith("'") && text.endsWith("'"))
+                ? text.substring(1, text.length() - 1)
+                : text;
+    }
+
+    private static String getKey(byte @Nullable [] config, List<byte[]> contents) {
+        MessageDigest digest = Hashes.newSha256();
+        digest.update(config != null ? config : new byte[0]);
+        for (byte[] content : contents) {
+            digest.update((byte) 0);
+            digest.update(content);
+        }
+        return Hashes.toHex(digest.digest());
+    }
+
+    private static byte @Nullable [] readIfExists(Path file) throws IOException {
+        return Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+    }
+
+    /**
+     * Leaf elements of a POM file indexed by their path relative to the project element.
+     */
+    @lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    @VisibleForTesting
+    static final class Pom {
+
+        static Pom parse(String content) {
+            String masked = MARKUP.matcher(content).replaceAll(" ");
+            Map<String, String> elements = new LinkedHashMap<>();
+            Deque<String> stack = new ArrayDeque<>();
+            int textStart = 0;
+            boolean leaf = false;
+            Matcher matcher = TAG.matcher(masked);
+            while (matcher.find()) {
+                String name = matcher.group(2);
+                if (matcher.group(1) != null) {
+                    if (!stack.isEmpty() && stack.peekLast().equals(name)) {
+                        String path = getPath(stack);
+                        if (path != null && leaf && elements.get(path) == null) {
+                            elements.put(path, masked.substring(textStart, matcher.start()).trim());
+                        }
+                        stack.removeLast();
+                    }
+                    leaf = false;
+                } else {
+                    stack.addLast(name);
+                    String path = getPath(stack);
+                    if (matcher.group(3) != null) {
+                        if (path != null && elements.get(path) == null) {
+                            elements.put(path, "");
+                        }
+                        stack.removeLast();
+                        leaf = false;
+                    } else {
+                        if (path != null) {
+                            elements.putIfAbsent(path, null);
+                        }
+                        textStart = matcher.end();
+                        leaf = true;
+                    }
+                }
+            }
+            return new Pom(elements);
+        }
+
+        private static @Nullable String getPath(Deque<String> stack) {
+            if (stack.size() < 2) {
+                return null;
+            }
+            Iterator<String> iterator = stack.iterator();
+            iterator.next();
+            StringJoiner result = new StringJoiner("/");
+            iterator.forEachRemaining(result::add);
+            return result.toString();
+        }
+
+        private final Map<String, String> elements;
+
+        boolean contains(String path) {
+            return elements.containsKey(path);
+        }
+
+        @Nullable
+        String get(String path) {
+            return elements.get(path);
+        }
+
+        String getOrDefault(String path, String defaultValue) {
+            String result = elements.get(path);
+            return result != null ? result : defaultValue;
+        }
+
+        Map<String, String> getProperties() {
+            Map<String, String> result = new HashMap<>();
+            elements.forEach((path, value) -> {
+                if (value != null && path.startsWith(PROPERTIES) && path.indexOf('/', PROPERTIES.length()) == -1) {
+                    result.put(path.substring(PROPERTIES.length()), value);
+                }
+            });
+            return result;
+        }
+
+        private static final String PROPERTIES = "properties/";
+    }
+
+    private static final String POM_FILE = "pom.xml";
+    private static final String MAVEN_CONFIG = ".mvn/maven.config";
+    private static final int MAX_DEPTH = 16;
+    private static final Pattern MARKUP = Pattern.compile("<!--.*?-->|<\\?.*?\\?>|<!\\[CDATA\\[.*?]]>|<![^>]*>", Pattern.DOTALL);
+    private static final Pattern TAG = Pattern.compile("<(/)?([^\\s/>]+)[^>]*?(/)?>");
+    private static final Pattern PROPERTY_REFERENCE = Pattern.compile("\\$\\{([^${}]+)}");
+}
@@ -0,0 +1,123 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.compatibility.ExitStatus;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparing;
+
+/**
+ * Persistent cache of check results, one file per key, evicted in least-recently-used order.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class ResultCache {
+
+    public static @NonNull ResultCache open(@NonNull Path directory, int maxEntries) throws IOException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxEntries);
+        }
+        Files.createDirectories(directory);
+        return new ResultCache(directory, maxEntries);
+    }
+
+    private final Path directory;
+    private final int maxEntries;
+
+    public @Nullable Entry get(@NonNull String key) throws IOException {
+        Path file = resolve(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            properties.load(reader);
+        }
+        if (!key.equals(properties.getProperty(KEY_PROPERTY))) {
+            return null;
+        }
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        return new Entry(
+                ExitStatus.valueOf(properties.getProperty(STATUS_PROPERTY)),
+                properties.getProperty(MESSAGE_PROPERTY)
+        );
+    }
+
+    public void put(@NonNull String key, @NonNull Entry entry) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_PROPERTY, key);
+        properties.setProperty(STATUS_PROPERTY, entry.getExitStatus().name());
+        if (entry.getExitMessage() != null) {
+            properties.setProperty(MESSAGE_PROPERTY, entry.getExitMessage());
+        }
+        Path file = resolve(key);
+        Path tmp = Files.createTempFile(directory, "entry", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, UTF_8)) {
+            properties.store(writer, null);
+        }
+        Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        evict();
+    }
+
+    public void clear() throws IOException {
+        for (Path file : getEntries()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private synchronized void evict() throws IOException {
+        List<Path> entries = getEntries();
+        if (entries.size() > maxEntries) {
+            entries.sort(comparing(ResultCache::getLastModifiedTime));
+            for (Path file : entries.subList(0, entries.size() - maxEntries)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private List<Path> getEntries() throws IOException {
+        return Files2.getSortedFiles(directory, ResultCache::isEntry, comparing(Path::toString));
+    }
+
+    private Path resolve(String key) {
+        return directory.resolve(Hashes.sha256(key) + ENTRY_EXTENSION);
+    }
+
+    private static boolean isEntry(Path file) {
+        return Files.isRegularFile(file) && file.getFileName().toString().endsWith(ENTRY_EXTENSION);
+    }
+
+    private static FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException ex) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static final String ENTRY_EXTENSION = ".properties";
+    private static final String KEY_PROPERTY = "key";
+    private static final String STATUS_PROPERTY = "status";
+    private static final String MESSAGE_PROPERTY = "message";
+
+    @lombok.Value
+    public static class Entry {
+
+        @NonNull
+        ExitStatus exitStatus;
+
+        @Nullable
+        String exitMessage;
+    }
+}
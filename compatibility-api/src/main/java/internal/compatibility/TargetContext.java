@@ -8,7 +8,7 @@ import java.nio.file.Path;
 import java.util.List;
 
 @lombok.Value
-@lombok.Builder
+@lombok.Builder(toBuilder = true)
 public class TargetContext implements ProjectContext {
 
     @NonNull
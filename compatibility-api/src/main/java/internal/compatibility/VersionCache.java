@@ -0,0 +1,38 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.compatibility.RefVersion;
+import nbbrd.compatibility.Version;
+import nbbrd.compatibility.spi.Maven;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoizes the binding versions resolved by brokers on unmodified target checkouts.
+ */
+public final class VersionCache {
+
+    private final Map<Key, Version> versions = new ConcurrentHashMap<>();
+
+    public @NonNull Version getVersion(@NonNull Broker broker, @NonNull Maven maven, @NonNull Path project, @NonNull URI targetUri, @NonNull RefVersion targetVersion) throws IOException {
+        Key key = new Key(targetUri, targetVersion, broker);
+        Version result = versions.get(key);
+        if (result == null) {
+            result = broker.getVersion(maven, project);
+            versions.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    @lombok.Value
+    private static class Key {
+
+        URI targetUri;
+        RefVersion targetVersion;
+        Broker broker;
+    }
+}
@@ -0,0 +1,135 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Asynchronous replacement of {@link Files2#deleteRecursively(Path)} for large directories.
+ * <p>
+ * Directories are moved to a trash area inside the working directory, which is immediate, and deleted in parallel
+ * in the background. Closing the cleaner doesn't wait for the pending deletions: they go on in daemon threads as long
+ * as the JVM lives, and the leftovers of previous runs are swept when the trash is opened again. The trash area is
+ * removed once it is empty.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class WorkspaceCleaner implements Closeable {
+
+    public static @NonNull WorkspaceCleaner open(@NonNull Path workingDir) throws IOException {
+        Path trash = Files.createDirectories(workingDir.resolve(TRASH_DIR));
+        WorkspaceCleaner result = new WorkspaceCleaner(trash);
+        result.sweep();
+        return result;
+    }
+
+    private final Path trash;
+
+    /**
+     * Deletes a file or a directory.
+     * Directories are deleted asynchronously unless they cannot be moved to the trash.
+     *
+     * @param path the path to delete
+     * @throws IOException if the path cannot be deleted
+     */
+    public void delete(@NonNull Path path) throws IOException {
+        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        Path entry = trash.resolve(path.getFileName() + "-" + UUID.randomUUID());
+        try {
+            Files.move(path, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            // different file store or locked files
+            Files2.deleteRecursively(path);
+            return;
+        }
+        schedule(entry);
+    }
+
+    /**
+     * Removes the trash area if it is empty, without waiting for the pending deletions.
+     *
+     * @throws IOException if the trash area cannot be removed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            Files.deleteIfExists(trash);
+        } catch (DirectoryNotEmptyException ex) {
+            // still used by pending deletions or a concurrent run; swept at next start
+        }
+    }
+
+    private void sweep() throws IOException {
+        List<Path> leftovers = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(trash)) {
+            entries.forEach(leftovers::add);
+        }
+        leftovers.forEach(WorkspaceCleaner::schedule);
+    }
+
+    /**
+     * Waits for the pending deletions to complete.
+     * This is only meant for tests since the deletions left at the end of a run are swept by the next one.
+     */
+    public static void drain() {
+        ForkJoinTask<?> task;
+        while ((task = PENDING.poll()) != null) {
+            task.quietlyJoin();
+        }
+    }
+
+    private static void schedule(Path entry) {
+        PENDING.removeIf(ForkJoinTask::isDone);
+        PENDING.add(POOL.submit(new DeleteTask(entry)));
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class DeleteTask extends RecursiveAction {
+
+        private final Path path;
+
+        @Override
+        protected void compute() {
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                List<DeleteTask> children = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+                    for (Path entry : entries) {
+                        if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                            children.add(new DeleteTask(entry));
+                        } else {
+                            deleteQuietly(entry);
+                        }
+                    }
+                } catch (IOException ex) {
+                    // swept at next start
+                }
+                invokeAll(children);
+            }
+            deleteQuietly(path);
+        }
+
+        private static void deleteQuietly(Path path) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ex) {
+                // swept at next start
+            }
+        }
+    }
+
+    private static final String TRASH_DIR = ".compatibility-trash";
+    private static final ForkJoinPool POOL = new ForkJoinPool();
+    private static final Queue<ForkJoinTask<?>> PENDING = new ConcurrentLinkedQueue<>();
+}
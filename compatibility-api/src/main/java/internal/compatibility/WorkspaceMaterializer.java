@@ -0,0 +1,384 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.sys.OS;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Faster replacement of {@link Files2#copyRecursively(Path, Path, CopyOption...)} for project workspaces.
+ * <p>
+ * Paths ignored by <code>.gitignore</code> files and the build output of Maven modules are not copied.
+ * On Linux and macOS, the whole workspace is first cloned by a single <code>cp</code> process using copy-on-write
+ * reflinks, and the excluded paths are then pruned. The support of reflinks is probed once per pair of file stores by
+ * cloning a single file. When the file system doesn't support reflinks, immutable files,
+ * such as git objects and read-only files, are hardlinked when the file system allows it and the other files are
+ * copied in parallel with the native copy of the platform.
+ */
+public final class WorkspaceMaterializer {
+
+    private WorkspaceMaterializer() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static @NonNull Stats materialize(@NonNull Path source, @NonNull Path target) throws IOException {
+        List<Path> dirs = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        List<Path> pruned = new ArrayList<>();
+        AtomicLong included = new AtomicLong();
+        AtomicLong excluded = new AtomicLong();
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            private final Deque<IgnoreRules> rules = new ArrayDeque<>();
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(source) && isExcluded(dir, true)) {
+                    excluded.addAndGet(Files2.getSize(dir));
+                    pruned.add(dir);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                dirs.add(dir);
+                rules.push(IgnoreRules.load(dir, isGitDir(dir) ? null : dir.resolve(GIT_IGNORE)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isSymbolicLink() && isBuildOutput(file)) {
+                    // build output linked to another file store
+                    pruned.add(file);
+                    return FileVisitResult.CONTINUE;
+                }
+                if (isExcluded(file, false)) {
+                    excluded.addAndGet(attrs.size());
+                    pruned.add(file);
+                } else {
+                    included.addAndGet(attrs.size());
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                rules.pop();
+                return super.postVisitDirectory(dir, exc);
+            }
+
+            private boolean isExcluded(Path path, boolean directory) {
+                if (isInGitDir(source, path)) {
+                    return false;
+                }
+                if (directory && isBuildOutput(path)) {
+                    return true;
+                }
+                for (IgnoreRules item : rules) {
+                    Boolean result = item.isIgnored(path, directory);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                return false;
+            }
+        });
+
+        if (cloneTree(source, target, files)) {
+            for (Path path : pruned) {
+                Path copy = map(source, target, path);
+                if (Files.exists(copy, LinkOption.NOFOLLOW_LINKS)) {
+                    Files2.deleteRecursively(copy);
+                }
+            }
+            return new Stats(0, 0, included.get(), excluded.get());
+        }
+
+        for (Path dir : dirs) {
+            Files.createDirectories(map(source, target, dir));
+        }
+        AtomicLong copied = new AtomicLong();
+        AtomicLong linked = new AtomicLong();
+        try {
+            files.parallelStream().forEach(file -> {
+                try {
+                    Path copy = map(source, target, file);
+                    long size = Files.size(file);
+                    if (isImmutable(source, file) && createLink(copy, file)) {
+                        linked.addAndGet(size);
+                    } else {
+                        // do not keep file times of the source
+                        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+                        Files.setLastModifiedTime(copy, FileTime.fromMillis(System.currentTimeMillis()));
+                        copied.addAndGet(size);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return new Stats(copied.get(), linked.get(), 0, excluded.get());
+    }
+
+    @lombok.Value
+    public static class Stats {
+
+        long copiedBytes;
+        long linkedBytes;
+        long clonedBytes;
+        long excludedBytes;
+
+        public long getAvoidedBytes() {
+            return linkedBytes + clonedBytes + excludedBytes;
+        }
+    }
+
+    private static Path map(Path source, Path target, Path path) {
+        return target.resolve(source.relativize(path).toString());
+    }
+
+    private static boolean cloneTree(Path source, Path target, List<Path> files) throws IOException {
+        if (getCloneCommand(OS.NAME, source, target) == null || !isReflinkSupported(source, target, files)) {
+            return false;
+        }
+        if (run(getCloneCommand(OS.NAME, source.resolve("."), target), source)) {
+            return true;
+        }
+        // partial clone left by a failure in the middle of the tree
+        if (Files.exists(target)) {
+            Files2.deleteRecursively(target);
+        }
+        return false;
+    }
+
+    private static boolean isReflinkSupported(Path source, Path target, List<Path> files) throws IOException {
+        Path dir = target;
+        while (!Files.isDirectory(dir)) {
+            dir = dir.toAbsolutePath().getParent();
+            if (dir == null) {
+                return false;
+            }
+        }
+        // a failing clone of the tree would walk it entirely before failing so a single file is cloned first
+        List<FileStore> stores = Arrays.asList(Files.getFileStore(source), Files.getFileStore(dir));
+        Boolean result = REFLINKS.get(stores);
+        if (result == null) {
+            Path file = files.stream().filter(Files::isRegularFile).findFirst().orElse(null);
+            if (file == null) {
+                return false;
+            }
+            Path probe = Files.createTempFile(dir, "reflink", ".tmp");
+            try {
+                result = run(getCloneCommand(OS.NAME, file, probe), file);
+            } finally {
+                Files.deleteIfExists(probe);
+            }
+            REFLINKS.put(stores, result);
+        }
+        return result;
+    }
+
+    private static final Map<List<FileStore>, Boolean> REFLINKS = new ConcurrentHashMap<>();
+
+    private static boolean run(List<String> command, Path source) throws IOException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try {
+            try (InputStream output = process.getInputStream()) {
+                byte[] buffer = new byte[1024];
+                while (output.read(buffer) != -1) {
+                    // the output only contains error messages
+                }
+            }
+            return process.waitFor() == 0;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while cloning " + source);
+        } finally {
+            process.destroy();
+        }
+    }
+
+    @VisibleForTesting
+    static @Nullable List<String> getCloneCommand(OS.Name os, Path source, Path target) {
+        // reflinks are required since a plain copy would also copy the excluded paths
+        switch (os) {
+            case LINUX:
+                return Arrays.asList("cp", "-R", "--reflink=always", source.toString(), target.toString());
+            case MACOS:
+                return Arrays.asList("cp", "-c", "-R", source.toString(), target.toString());
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isBuildOutput(Path dir) {
+        return dir.getFileName().toString().equals(BUILD_OUTPUT) && Files.isRegularFile(dir.resolveSibling(POM_FILE));
+    }
+
+    private static boolean isGitDir(Path dir) {
+        Path name = dir.getFileName();
+        return name != null && name.toString().equals(GIT_DIR);
+    }
+
+    private static boolean isInGitDir(Path root, Path path) {
+        Path relative = root.relativize(path);
+        return relative.getNameCount() > 0 && relative.getName(0).toString().equals(GIT_DIR);
+    }
+
+    private static boolean isImmutable(Path root, Path file) {
+        if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        boolean writable = Files.isWritable(file);
+        if (!writable && OS.NAME.equals(OS.Name.WINDOWS)) {
+            // read-only files cannot be deleted on Windows so they must be copied as writable files
+            return false;
+        }
+        // git objects are content-addressed and never modified in place
+        Path relative = root.relativize(file);
+        return !writable || (relative.getNameCount() > 2 && relative.getName(0).toString().equals(GIT_DIR) && relative.getName(1).toString().equals("objects"));
+    }
+
+    private static boolean createLink(Path link, Path existing) {
+        try {
+            Files.createLink(link, existing);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Patterns of a <code>.gitignore</code> file relative to its directory.
+     */
+    @lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    @VisibleForTesting
+    static final class IgnoreRules {
+
+        static IgnoreRules load(Path base, @Nullable Path file) throws IOException {
+            return new IgnoreRules(base, file != null && Files.isRegularFile(file) ? parse(Files.readAllLines(file, UTF_8)) : Collections.emptyList());
+        }
+
+        @VisibleForTesting
+        static List<Rule> parse(List<String> lines) {
+            List<Rule> result = new ArrayList<>();
+            for (String line : lines) {
+                String pattern = trimTrailingSpaces(line);
+                if (pattern.isEmpty() || pattern.startsWith("#")) {
+                    continue;
+                }
+                boolean negated = pattern.startsWith("!");
+                if (negated || pattern.startsWith("\\!") || pattern.startsWith("\\#")) {
+                    pattern = pattern.substring(1);
+                }
+                boolean directoryOnly = pattern.endsWith("/");
+                if (directoryOnly) {
+                    pattern = pattern.substring(0, pattern.length() - 1);
+                }
+                boolean anchored = pattern.contains("/");
+                if (pattern.startsWith("/")) {
+                    pattern = pattern.substring(1);
+                }
+                if (!pattern.isEmpty()) {
+                    result.add(new Rule(toRegex(pattern), negated, directoryOnly, anchored));
+                }
+            }
+            return result;
+        }
+
+        private final Path base;
+        private final List<Rule> rules;
+
+        /**
+         * @return true if ignored, false if explicitly not ignored, null if no rule matches
+         */
+        @Nullable
+        Boolean isIgnored(Path path, boolean directory) {
+            if (rules.isEmpty()) {
+                return null;
+            }
+            String relative = base.relativize(path).toString().replace('\\', '/');
+            String name = path.getFileName().toString();
+            for (int i = rules.size() - 1; i >= 0; i--) {
+                Rule rule = rules.get(i);
+                if ((!rule.isDirectoryOnly() || directory) && rule.getRegex().matcher(rule.isAnchored() ? relative : name).matches()) {
+                    return !rule.isNegated();
+                }
+            }
+            return null;
+        }
+
+        private static String trimTrailingSpaces(String line) {
+            int end = line.length();
+            while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            return line.substring(0, end);
+        }
+
+        private static Pattern toRegex(String glob) {
+            StringBuilder result = new StringBuilder();
+            int i = 0;
+            while (i < glob.length()) {
+                char c = glob.charAt(i);
+                if (c == '*') {
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                        if (i + 2 < glob.length() && glob.charAt(i + 2) == '/') {
+                            result.append("(?:.*/)?");
+                            i += 3;
+                        } else {
+                            result.append(".*");
+                            i += 2;
+                        }
+                        continue;
+                    }
+                    result.append("[^/]*");
+                } else if (c == '?') {
+                    result.append("[^/]");
+                } else if (c == '[' && glob.indexOf(']', i + 1) != -1) {
+                    int end = glob.indexOf(']', i + 1);
+                    String content = glob.substring(i + 1, end);
+                    if (content.startsWith("!")) {
+                        content = "^" + content.substring(1);
+                    }
+                    result.append('[').append(content.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                    i = end;
+                } else if (c == '\\' && i + 1 < glob.length()) {
+                    result.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                } else {
+                    result.append(Pattern.quote(String.valueOf(c)));
+                }
+                i++;
+            }
+            return Pattern.compile(result.toString());
+        }
+
+        @lombok.Value
+        static class Rule {
+
+            Pattern regex;
+            boolean negated;
+            boolean directoryOnly;
+            boolean anchored;
+        }
+    }
+
+    private static final String GIT_DIR = ".git";
+    private static final String GIT_IGNORE = ".gitignore";
+    private static final String BUILD_OUTPUT = "target";
+    private static final String POM_FILE = "pom.xml";
+}
@@ -0,0 +1,175 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Persistent pool of prepared workspaces of remote projects.
+ * <p>
+ * Each workspace is leased by a single run at a time and kept at the end of the run so that the next run only has to
+ * fetch the new tags. A workspace is reused only if it has been fully prepared; its build outputs are removed when it
+ * is leased again. Least recently used workspaces are evicted when the pool exceeds its maximum size.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class WorkspacePool {
+
+    public static @NonNull WorkspacePool open(@NonNull Path dir, long maxSize) throws IOException {
+        return new WorkspacePool(LruDirectory.open(dir, maxSize, "", READY_SUFFIX));
+    }
+
+    private final LruDirectory workspaces;
+
+    /**
+     * Leases the workspace of a project.
+     *
+     * @param uri the project URI
+     * @return the lease or null if the workspace is already leased
+     * @throws IOException if the pool cannot be read or written
+     */
+    public @Nullable Lease acquire(@NonNull URI uri) throws IOException {
+        String name = LruDirectory.getName(uri);
+        InterProcessLock lock = InterProcessLock.acquire(workspaces.getLockFile(name), false);
+        if (lock == null) {
+            return null;
+        }
+        try {
+            Lease result = new Lease(uri, name, lock);
+            if (result.isReady()) {
+                deleteBuildOutputs(result.getDirectory());
+            } else {
+                result.reset();
+            }
+            return result;
+        } catch (IOException | RuntimeException ex) {
+            lock.close();
+            throw ex;
+        }
+    }
+
+    @lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    public final class Lease implements Closeable {
+
+        private final URI uri;
+        private final String name;
+        private final InterProcessLock lock;
+
+        public @NonNull Path getDirectory() {
+            return workspaces.getEntry(name);
+        }
+
+        /**
+         * Checks if the workspace has been fully prepared for its project by a previous run.
+         *
+         * @return true if the workspace can be reused
+         * @throws IOException if the workspace cannot be read
+         */
+        public boolean isReady() throws IOException {
+            Path readyFile = getReadyFile(name);
+            return Files.isDirectory(getDirectory())
+                    && Files.isRegularFile(readyFile)
+                    && new String(Files.readAllBytes(readyFile), UTF_8).equals(uri.toString());
+        }
+
+        public void setReady() throws IOException {
+            Files.write(getReadyFile(name), uri.toString().getBytes(UTF_8));
+        }
+
+        /**
+         * Discards the content of the workspace.
+         *
+         * @throws IOException if the workspace cannot be deleted
+         */
+        public void reset() throws IOException {
+            Files.deleteIfExists(getReadyFile(name));
+            if (Files.exists(getDirectory())) {
+                Files2.deleteRecursively(getDirectory());
+            }
+            Files.createDirectories(getDirectory());
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                workspaces.touch(name);
+            } finally {
+                lock.close();
+            }
+            workspaces.evict(name);
+        }
+    }
+
+    /**
+     * Links the build output of each module of a project to a directory on another file store such as tmpfs.
+     * Modules whose build output already exists as a directory are left unchanged.
+     *
+     * @param project the project directory
+     * @param outputs the directory of the build outputs
+     * @throws IOException if the project cannot be read
+     */
+    public static void linkBuildOutputs(@NonNull Path project, @NonNull Path outputs) throws IOException {
+        for (Path module : getModules(project)) {
+            Path link = module.resolve(BUILD_OUTPUT);
+            if (Files.isSymbolicLink(link)) {
+                if (Files.readSymbolicLink(link).startsWith(outputs) && Files.isDirectory(link)) {
+                    continue;
+                }
+                Files.delete(link);
+            } else if (Files.exists(link)) {
+                continue;
+            }
+            try {
+                Files.createSymbolicLink(link, Files.createTempDirectory(outputs, BUILD_OUTPUT));
+            } catch (IOException | UnsupportedOperationException ex) {
+                // symbolic links are not supported or not allowed; outputs stay in the project
+                return;
+            }
+        }
+    }
+
+    private static void deleteBuildOutputs(Path project) throws IOException {
+        for (Path module : getModules(project)) {
+            Path output = module.resolve(BUILD_OUTPUT);
+            if (Files.isSymbolicLink(output)) {
+                Files.delete(output);
+            } else if (Files.isDirectory(output)) {
+                Files2.deleteRecursively(output);
+            }
+        }
+    }
+
+    private static List<Path> getModules(Path project) throws IOException {
+        List<Path> result = new ArrayList<>();
+        Files.walkFileTree(project, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                Path name = dir.getFileName();
+                if (name != null && (name.toString().equals(".git") || (name.toString().equals(BUILD_OUTPUT) && Files.isRegularFile(dir.resolveSibling(POM_FILE))))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (Files.isRegularFile(dir.resolve(POM_FILE))) {
+                    result.add(dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return result;
+    }
+
+    private Path getReadyFile(String name) {
+        return workspaces.getFile(name, READY_SUFFIX);
+    }
+
+    private static final String READY_SUFFIX = ".ready";
+    private static final String BUILD_OUTPUT = "target";
+    private static final String POM_FILE = "pom.xml";
+}
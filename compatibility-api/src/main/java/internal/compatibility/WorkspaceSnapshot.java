@@ -0,0 +1,192 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+/**
+ * In-process replacement of a <code>git restore</code> followed by a <code>mvn clean</code> on a project.
+ * <p>
+ * The snapshot records the paths of the project with their size, last modified time and hash, and the content of the
+ * POM files, which are the only files modified when setting a version. Restoring it rewrites the POM files that have
+ * changed and deletes the paths that have been created since, such as the build output. Files rewritten with the same
+ * content, such as generated resources, are not considered as modified.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class WorkspaceSnapshot {
+
+    public static @NonNull WorkspaceSnapshot of(@NonNull Path project) throws IOException {
+        Set<Path> dirs = new HashSet<>();
+        Map<Path, FileState> files = new LinkedHashMap<>();
+        List<Path> links = new ArrayList<>();
+        Files.walkFileTree(project, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (isGitDir(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                dirs.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                files.put(file, isPom(file)
+                        ? new FileState(attrs.size(), attrs.lastModifiedTime(), null, Files.readAllBytes(file))
+                        : new FileState(attrs.size(), attrs.lastModifiedTime(), getHash(file, attrs), null));
+                if (attrs.isSymbolicLink() && isBuildOutput(file) && Files.isDirectory(file)) {
+                    links.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return new WorkspaceSnapshot(project, dirs, files, links);
+    }
+
+    private final Path project;
+    private final Set<Path> dirs;
+    private final Map<Path, FileState> files;
+    private final List<Path> links;
+
+    /**
+     * Restores the project to the state of this snapshot.
+     *
+     * @param cleaner the cleaner used to delete the paths created since the snapshot
+     * @return true if the project has been fully restored, false if some files other than POM files have been
+     * modified or deleted and cannot be restored
+     * @throws IOException if the project cannot be read or written
+     */
+    public boolean restore(@NonNull WorkspaceCleaner cleaner) throws IOException {
+        List<Path> created = new ArrayList<>();
+        Set<Path> visited = new HashSet<>();
+        boolean[] result = {true};
+        Files.walkFileTree(project, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (isGitDir(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (!dirs.contains(dir)) {
+                    created.add(dir);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                FileState state = files.get(file);
+                if (state == null) {
+                    created.add(file);
+                } else {
+                    visited.add(file);
+                    if (state.getContent() != null) {
+                        if (!Arrays.equals(state.getContent(), Files.readAllBytes(file))) {
+                            Files.write(file, state.getContent());
+                        }
+                    } else if (state.getSize() != attrs.size()) {
+                        result[0] = false;
+                    } else if (!state.getLastModified().equals(attrs.lastModifiedTime())) {
+                        if (Arrays.equals(state.getHash(), getHash(file, attrs))) {
+                            files.put(file, new FileState(state.getSize(), attrs.lastModifiedTime(), state.getHash(), null));
+                        } else {
+                            result[0] = false;
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        // deleting while walking would fail on platforms that lock open directories
+        for (Path path : created) {
+            cleaner.delete(path);
+        }
+
+        // build outputs linked to another file store are emptied in place
+        for (Path link : links) {
+            if (Files.isDirectory(link)) {
+                List<Path> outputs = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(link)) {
+                    entries.forEach(outputs::add);
+                }
+                for (Path output : outputs) {
+                    cleaner.delete(output);
+                }
+            }
+        }
+
+        for (Map.Entry<Path, FileState> entry : files.entrySet()) {
+            if (!visited.contains(entry.getKey())) {
+                if (entry.getValue().getContent() != null) {
+                    Files.createDirectories(entry.getKey().getParent());
+                    Files.write(entry.getKey(), entry.getValue().getContent());
+                } else {
+                    result[0] = false;
+                }
+            }
+        }
+        return result[0];
+    }
+
+    /**
+     * Accepts the current state of the files other than POM files that cannot be restored, so that the next restore
+     * only reverts the changes made after this call.
+     *
+     * @throws IOException if the project cannot be read
+     */
+    public void accept() throws IOException {
+        Iterator<Map.Entry<Path, FileState>> iterator = files.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, FileState> entry = iterator.next();
+            if (entry.getValue().getContent() == null) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entry.getKey(), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException ex) {
+                    iterator.remove();
+                    continue;
+                }
+                entry.setValue(new FileState(attrs.size(), attrs.lastModifiedTime(), getHash(entry.getKey(), attrs), null));
+            }
+        }
+    }
+
+    private static byte @Nullable [] getHash(Path file, BasicFileAttributes attrs) throws IOException {
+        // links are compared by their metadata only
+        if (!attrs.isRegularFile()) {
+            return null;
+        }
+        return Hashes.sha256(file);
+    }
+
+    private static boolean isGitDir(Path dir) {
+        Path name = dir.getFileName();
+        return name != null && name.toString().equals(".git");
+    }
+
+    private static boolean isBuildOutput(Path file) {
+        return file.getFileName().toString().equals(BUILD_OUTPUT) && Files.isRegularFile(file.resolveSibling(POM_FILE));
+    }
+
+    private static boolean isPom(Path file) {
+        return file.getFileName().toString().equals(POM_FILE);
+    }
+
+    @lombok.Value
+    private static class FileState {
+
+        long size;
+        FileTime lastModified;
+        byte @Nullable [] hash;
+        byte @Nullable [] content;
+    }
+
+    private static final String POM_FILE = "pom.xml";
+    private static final String BUILD_OUTPUT = "target";
+}
@@ -0,0 +1,150 @@
+package internal.compatibility.spi;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static java.lang.System.lineSeparator;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Streaming capture of the output of a build.
+ * <p>
+ * Only the error lines and a bounded tail of the output are kept in memory. The full output is optionally spilled to
+ * a file which is referenced by the message when some lines have been omitted. The file is best-effort: a failure to
+ * write it is reported as an event and never fails the build.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+final class BuildLog implements Consumer<String>, Closeable {
+
+    static final int DEFAULT_TAIL_SIZE = 100;
+    static final int DEFAULT_MAX_ERRORS = 1000;
+
+    static @NonNull BuildLog open(@Nullable Path file, int tailSize, int maxErrors, @NonNull Consumer<? super String> onEvent) {
+        if (tailSize < 0 || maxErrors < 0) {
+            throw new IllegalArgumentException("Negative size");
+        }
+        BuildLog result = new BuildLog(file, tailSize, maxErrors, onEvent);
+        if (file != null) {
+            try {
+                result.writer = Files.newBufferedWriter(file, UTF_8);
+            } catch (IOException ex) {
+                result.fail(ex);
+            }
+        }
+        return result;
+    }
+
+    private final @Nullable Path file;
+    private final int tailSize;
+    private final int maxErrors;
+    private final @NonNull Consumer<? super String> onEvent;
+
+    private final List<Line> errors = new ArrayList<>();
+    private final ArrayDeque<Line> tail = new ArrayDeque<>();
+    private @Nullable Writer writer = null;
+    private int count = 0;
+    private boolean failed = false;
+
+    @Override
+    public void accept(String line) {
+        write(line);
+        Line entry = new Line(count++, line);
+        if (line.startsWith(ERROR_PREFIX) && errors.size() < maxErrors) {
+            errors.add(entry);
+        }
+        if (tailSize > 0) {
+            if (tail.size() == tailSize) {
+                tail.removeFirst();
+            }
+            tail.addLast(entry);
+        }
+    }
+
+    /**
+     * Gets the error lines and the tail of the output, in their original order.
+     *
+     * @return the message or null if the build has no output
+     */
+    @Nullable
+    String getMessage() {
+        if (count == 0) {
+            return null;
+        }
+        Map<Integer, String> lines = new TreeMap<>();
+        errors.forEach(line -> lines.put(line.getIndex(), line.getText()));
+        tail.forEach(line -> lines.put(line.getIndex(), line.getText()));
+
+        StringJoiner result = new StringJoiner(lineSeparator());
+        int next = 0;
+        for (Map.Entry<Integer, String> line : lines.entrySet()) {
+            if (line.getKey() > next) {
+                result.add(toOmitted(line.getKey() - next));
+            }
+            result.add(line.getValue());
+            next = line.getKey() + 1;
+        }
+        if (count > next) {
+            result.add(toOmitted(count - next));
+        }
+        if (lines.size() < count && file != null && !failed) {
+            result.add("Full log: " + file);
+        }
+        return result.toString();
+    }
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+    }
+
+    private void write(String line) {
+        // a failing file must not stop the build
+        if (writer != null && !failed) {
+            try {
+                writer.write(line);
+                writer.write(lineSeparator());
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+    }
+
+    private void fail(IOException ex) {
+        if (!failed) {
+            failed = true;
+            onEvent.accept("Cannot write build log " + file + ": " + ex.getMessage());
+        }
+    }
+
+    private static String toOmitted(int lineCount) {
+        return "[... " + lineCount + (lineCount == 1 ? " line" : " lines") + " omitted]";
+    }
+
+    private static final String ERROR_PREFIX = "[ERROR]";
+
+    @lombok.Value
+    private static class Line {
+
+        int index;
+        String text;
+    }
+}
@@ -4,10 +4,12 @@ import com.github.mustachejava.DefaultMustacheFactory;
 import internal.compatibility.TempPath;
 import lombok.NonNull;
 import nbbrd.compatibility.Artifact;
+import nbbrd.compatibility.Filter;
 import nbbrd.compatibility.Ref;
 import nbbrd.compatibility.Version;
 import nbbrd.compatibility.spi.Build;
 import nbbrd.design.VisibleForTesting;
+import nbbrd.io.sys.EndOfProcessException;
 import nbbrd.io.text.TextParser;
 import nbbrd.io.text.TextResource;
 import org.jspecify.annotations.Nullable;
@@ -18,15 +20,23 @@ import java.io.Writer;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import static internal.compatibility.Collectors2.consuming;
+import static internal.compatibility.Collectors2.peeking;
 import static internal.compatibility.Collectors2.toFirst;
 import static internal.compatibility.Collectors2.toSingle;
 import static internal.compatibility.spi.MvnCommand.FailStrategy.FAIL_NEVER;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
 
@@ -40,8 +50,20 @@ public final class CommandLineBuild implements Build {
 
     private final @Nullable Path git;
 
+    private final @Nullable EmbeddedMaven embedded;
+
+    private final @Nullable MvndDaemons daemons;
+
+    private final @Nullable FastStartProfile fastStart;
+
     private MvnCommand.Builder mvnOf(Path project) {
-        return MvnCommand.builder().binary(mvn).quiet(true).batchMode(true).file(project);
+        return MvnCommand.builder().binary(mvn).quiet(true).batchMode(true).file(project).runner(getRunner(true));
+    }
+
+    private @Nullable TextRunner getRunner(boolean shortLived) {
+        if (embedded != null) return embedded;
+        if (daemons != null) return daemons;
+        return shortLived ? fastStart : null;
     }
 
     @Override
@@ -72,19 +94,47 @@ public final class CommandLineBuild implements Build {
 
     @Override
     public @Nullable String verify(@NonNull Path project) throws IOException {
+        return verify(project, VerifyOptions.DEFAULT);
+    }
+
+    @Override
+    public @Nullable String verify(@NonNull Path project, @NonNull VerifyOptions options) throws IOException {
         // https://maven.apache.org/guides/introduction/introduction-to-the-lifecycle.html
-        String errorMessage = mvnOf(project)
-                .goal("clean")
-                .goal("verify")
+        // https://maven.apache.org/guides/mini/guide-multiple-modules.html#reactor-options
+        MvnCommand.Builder command = mvnOf(project)
+                .projects(options.getModules())
+                .alsoMake(!options.getModules().isEmpty())
+                .alsoMakeDependents(!options.getModules().isEmpty())
+                .threads(options.getThreads())
+                // long-running builds keep the default JVM options
+                .runner(getRunner(false))
                 .updateSnapshots(true)
                 .failStrategy(FAIL_NEVER)
-                .property("skipTests", null)
-                .property("enforcer.skip", null)
-                .build()
-                .toTextProcessor()
-                .withListener(onEvent)
-                .processToString();
-        return !errorMessage.isEmpty() ? errorMessage : null;
+                .property("enforcer.skip", null);
+        if (options.isClean()) {
+            command.goal("clean");
+        }
+        switch (options.getVerification()) {
+            case COMPILE:
+                // test-compile also compiles the main sources and catches API breaks in tests
+                command.goal("test-compile");
+                break;
+            case VERIFY:
+                command.goal("verify").property("skipTests", null);
+                break;
+            case TEST:
+                command.goal("verify");
+                break;
+        }
+        // the output of verbose builds is streamed instead of being buffered
+        try (BuildLog log = BuildLog.open(options.getLogFile(), BuildLog.DEFAULT_TAIL_SIZE, BuildLog.DEFAULT_MAX_ERRORS, onEvent)) {
+            command
+                    .build()
+                    .toTextProcessor()
+                    .withListener(onEvent)
+                    .process(peeking(log, consuming()));
+            return log.getMessage();
+        }
     }
 
     @Override
@@ -180,6 +230,27 @@ public final class CommandLineBuild implements Build {
         }
     }
 
+    @Override
+    public @NonNull Version getMavenVersion() throws IOException {
+        // https://maven.apache.org/ref/current/maven-embedder/cli.html
+        Version result = MvnCommand
+                .builder()
+                .binary(mvn)
+                .quiet(true)
+                .batchMode(true)
+                // a version check is too short to dump a representative AppCDS archive
+                .runner(getRunner(false))
+                .goal("--version")
+                .build()
+                .toTextProcessor()
+                .withListener(onEvent)
+                .process(collectingAndThen(toList(), lines -> parseMavenVersion(lines.stream())));
+        if (result == null) {
+            throw new IOException("Failed to get Maven version");
+        }
+        return result;
+    }
+
     @Override
     public void checkoutTag(@NonNull Path project, @NonNull Ref ref) throws IOException {
         GitCommand
@@ -195,6 +266,22 @@ public final class CommandLineBuild implements Build {
                 .process();
     }
 
+    @Override
+    public @NonNull String getCommitId(@NonNull Path project, @NonNull Ref ref) throws IOException {
+        return GitCommand
+                .builder()
+                .binary(git)
+                .workingDir(project)
+                .command("rev-parse")
+                .parameter("--verify")
+                .parameter(ref.getName() + "^{commit}")
+                .build()
+                .toTextProcessor()
+                .withListener(onEvent)
+                .process(toFirst())
+                .orElseThrow(() -> new IOException("Failed to get commit id"));
+    }
+
     @Override
     public @NonNull List<Ref> getTags(@NonNull Path project) throws IOException {
         return GitCommand
@@ -210,6 +297,111 @@ public final class CommandLineBuild implements Build {
                 .process(mapping(Ref::parse, toList()));
     }
 
+    @Override
+    public @NonNull List<Ref> getTags(@NonNull Path project, @NonNull Filter filter) throws IOException {
+        if (filter.getLimit() == 0) {
+            return Collections.emptyList();
+        }
+        List<String> patterns = getTagPatterns(filter.getRef());
+        boolean pushLimit = filter.getLimit() > 0 && patterns != null && filter.getFrom() == null && filter.getTo() == null;
+        // https://git-scm.com/docs/git-for-each-ref
+        GitCommand.Builder command = GitCommand
+                .builder()
+                .binary(git)
+                .workingDir(project)
+                .command("for-each-ref")
+                .parameter("--format=%(creatordate:short)/%(refname:strip=2)");
+        if (pushLimit) {
+            // latest first with the same tie-break as the ascending order
+            command.parameter("--sort=-refname").parameter("--sort=-creatordate").parameter("--count=" + filter.getLimit());
+        } else {
+            command.parameter("--sort=refname").parameter("--sort=creatordate");
+        }
+        command.parameters(patterns != null ? patterns : Collections.singletonList(TAGS_PREFIX));
+        List<Ref> result = command
+                .build()
+                .toTextProcessor()
+                .withListener(onEvent)
+                .process(mapping(Ref::parse, toList()));
+        if (pushLimit) {
+            Collections.reverse(result);
+        }
+        // residual predicates such as dates
+        return filter.apply(result);
+    }
+
+    @VisibleForTesting
+    static @Nullable List<String> getTagPatterns(@Nullable String ref) {
+        if (ref == null) {
+            return Collections.singletonList(TAGS_PREFIX);
+        }
+        if (ref.isEmpty() || ref.chars().anyMatch(c -> "*?[]\\/".indexOf(c) != -1)) {
+            return null;
+        }
+        // a tag name contains the ref in one of its path segments
+        return Arrays.asList(
+                TAGS_PREFIX + "/*" + ref + "*",
+                TAGS_PREFIX + "/**/*" + ref + "*",
+                TAGS_PREFIX + "/**/*" + ref + "*/**"
+        );
+    }
+
+    private static final String TAGS_PREFIX = "refs/tags";
+
+    @Override
+    public @NonNull List<Ref> getRemoteTags(@NonNull URI from) throws IOException {
+        return GitCommand
+                .builder()
+                .binary(git)
+                .command("ls-remote")
+                .parameter("--tags")
+                .parameter("--refs")
+                .parameter("--sort=v:refname")
+                .parameter(from.toString())
+                .build()
+                .toTextProcessor()
+                .withListener(onEvent)
+                .process(CommandLineBuild::parseRemoteTags);
+    }
+
+    @Override
+    public byte @Nullable [] readFile(@NonNull Path project, @NonNull Ref ref, @NonNull String path) throws IOException {
+        String objectId;
+        try {
+            // https://git-scm.com/docs/git-rev-parse#Documentation/git-rev-parse.txt---verify
+            objectId = GitCommand
+                    .builder()
+                    .binary(git)
+                    .workingDir(project)
+                    .command("rev-parse")
+                    .parameter("--verify")
+                    .parameter("--quiet")
+                    .parameter(ref.getName() + ":" + path)
+                    .build()
+                    .toTextProcessor()
+                    .withListener(onEvent)
+                    .processToString();
+        } catch (EndOfProcessException ex) {
+            // quiet verification only fails with 1 on a missing file or an unknown reference
+            if (ex.getExitValue() == 1) {
+                return null;
+            }
+            throw ex;
+        }
+        // https://git-scm.com/docs/git-cat-file
+        return GitCommand
+                .builder()
+                .binary(git)
+                .workingDir(project)
+                .command("cat-file")
+                .parameter("blob")
+                .parameter(objectId.trim())
+                .build()
+                .toTextProcessor()
+                .withListener(onEvent)
+                .processToBytes();
+    }
+
     @Override
     public void clone(@NonNull URI from, @NonNull Path to) throws IOException {
         GitCommand
@@ -217,22 +409,143 @@ public final class CommandLineBuild implements Build {
                 .binary(git)
                 .quiet(true)
                 .command("clone")
-                .parameter(from.toString())
+                .parameter(toCloneSource(from))
                 .parameter(to.toString())
                 .build()
                 .toTextProcessor()
                 .withListener(onEvent)
                 .process();
+        fixReadOnlyFiles(to.resolve(".git"));
+    }
+
+    @Override
+    public void clone(@NonNull URI from, @NonNull Path to, @NonNull CloneStrategy strategy, @NonNull Filter filter) throws IOException {
+        switch (strategy) {
+            case FULL:
+                clone(from, to);
+                break;
+            case BLOBLESS:
+                // https://git-scm.com/docs/partial-clone
+                GitCommand
+                        .builder()
+                        .binary(git)
+                        .quiet(true)
+                        .command("clone")
+                        .parameter("--filter=blob:none")
+                        .parameter(from.toString())
+                        .parameter(to.toString())
+                        .build()
+                        .toTextProcessor()
+                        .withListener(onEvent)
+                        .process();
+                fixReadOnlyFiles(to.resolve(".git"));
+                break;
+            case SHALLOW:
+                // tags are selected before fetching since fetching all the tags of a large project is slow
+                List<Ref> tags = selectRemoteTags(getRemoteTags(from), filter);
+                GitCommand
+                        .builder()
+                        .binary(git)
+                        .quiet(true)
+                        .command("clone")
+                        .parameter("--depth=1")
+                        .parameter("--filter=blob:none")
+                        .parameter("--no-checkout")
+                        .parameter("--no-tags")
+                        .parameter(from.toString())
+                        .parameter(to.toString())
+                        .build()
+                        .toTextProcessor()
+                        .withListener(onEvent)
+                        .process();
+                if (!tags.isEmpty()) {
+                    GitCommand
+                            .builder()
+                            .binary(git)
+                            .quiet(true)
+                            .workingDir(to)
+                            .command("fetch")
+                            .parameter("--depth=1")
+                            .parameter("--filter=blob:none")
+                            .parameter("origin")
+                            .parameters(tags.stream().map(tag -> "+refs/tags/" + tag.getName() + ":refs/tags/" + tag.getName()).collect(toList()))
+                            .build()
+                            .toTextProcessor()
+                            .withListener(onEvent)
+                            .process();
+                }
+                fixReadOnlyFiles(to.resolve(".git"));
+                break;
+        }
+    }
+
+    @Override
+    public void mirror(@NonNull URI from, @NonNull Path to) throws IOException {
+        if (Files.isDirectory(to)) {
+            GitCommand
+                    .builder()
+                    .binary(git)
+                    .quiet(true)
+                    .workingDir(to)
+                    .command("fetch")
+                    .parameter("--prune")
+                    .parameter("origin")
+                    .build()
+                    .toTextProcessor()
+                    .withListener(onEvent)
+                    .process();
+        } else {
+            GitCommand
+                    .builder()
+                    .binary(git)
+                    .quiet(true)
+                    .command("clone")
+                    .parameter("--mirror")
+                    .parameter(toCloneSource(from))
+                    .parameter(to.toString())
+                    .build()
+                    .toTextProcessor()
+                    .withListener(onEvent)
+                    .process();
+        }
         fixReadOnlyFiles(to);
     }
 
     @Override
-    public void close() {
+    public void fetchTags(@NonNull Path project) throws IOException {
+        // https://git-scm.com/docs/git-fetch#Documentation/git-fetch.txt---prune-tags
+        GitCommand
+                .builder()
+                .binary(git)
+                .quiet(true)
+                .workingDir(project)
+                .command("fetch")
+                .parameter("--tags")
+                .parameter("--force")
+                .parameter("--prune")
+                .parameter("--prune-tags")
+                .parameter("origin")
+                .build()
+                .toTextProcessor()
+                .withListener(onEvent)
+                .process();
+        fixReadOnlyFiles(project.resolve(".git"));
+    }
+
+    private static String toCloneSource(URI uri) {
+        // a local path instead of a file URI allows git to hardlink objects
+        return "file".equals(uri.getScheme()) ? Paths.get(uri).toString() : uri.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) embedded.close();
+        if (daemons != null) daemons.close();
     }
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
-    private static void fixReadOnlyFiles(Path to) throws IOException {
-        try (Stream<Path> files = Files.list(to.resolve(".git").resolve("objects").resolve("pack"))) {
+    private static void fixReadOnlyFiles(Path gitDir) throws IOException {
+        try (Stream<Path> files = Files.list(gitDir.resolve("objects").resolve("pack"))) {
             files.forEach(file -> file.toFile().setWritable(true));
         }
     }
@@ -245,6 +558,42 @@ public final class CommandLineBuild implements Build {
                 .collect(toList());
     }
 
+    @VisibleForTesting
+    static List<Ref> selectRemoteTags(List<Ref> tags, Filter filter) {
+        // remote tags have no date so the limit is applied to their version order, unless the dates must be checked
+        // first: the newest tags might fall outside the date window and hide the older ones that fall inside it
+        List<Ref> result = tags.stream().filter(filter::containsRef).collect(toList());
+        return filter.getFrom() == null && filter.getTo() == null && filter.getLimit() >= 0 && result.size() > filter.getLimit()
+                ? result.subList(result.size() - filter.getLimit(), result.size())
+                : result;
+    }
+
+    @VisibleForTesting
+    static @Nullable Version parseMavenVersion(Stream<String> lines) {
+        // quiet mode prints the bare version while the other modes and the daemon print a banner
+        return lines
+                .map(MAVEN_VERSION::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> Version.parse(matcher.group(1)))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static final Pattern MAVEN_VERSION = Pattern.compile("(?:Apache Maven )?(\\d+\\.\\d+\\S*)(?:\\s.*)?");
+
+    @VisibleForTesting
+    static List<Ref> parseRemoteTags(Stream<String> lines) {
+        return lines
+                .map(CommandLineBuild::parseRemoteTag)
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
+
+    private static Ref parseRemoteTag(String line) {
+        int index = line.indexOf("\trefs/tags/");
+        return index != -1 ? Ref.of(null, line.substring(index + "\trefs/tags/".length())) : null;
+    }
+
     private static Artifact parseDependency(String line) {
         if (!line.startsWith("   ") || line.equals("   none")) {
             return null;
@@ -28,8 +28,22 @@ public final class CommandLineBuilder implements Builder {
         return true;
     }
 
+    @Override
+    public int getBuilderCost() {
+        return 0;
+    }
+
     @Override
     public @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent) {
-        return CommandLineBuild.builder().onEvent(onEvent).build();
+        return getBuild(onEvent, BuildOptions.DEFAULT);
+    }
+
+    @Override
+    public @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent, @NonNull BuildOptions options) {
+        return CommandLineBuild
+                .builder()
+                .onEvent(onEvent)
+                .fastStart(options.isFastStart() ? FastStartProfile.of(System.getProperties(), null, onEvent) : null)
+                .build();
     }
 }
@@ -0,0 +1,45 @@
+package internal.compatibility.spi;
+
+import lombok.NonNull;
+import nbbrd.compatibility.spi.Build;
+import nbbrd.compatibility.spi.Builder;
+import nbbrd.design.DirectImpl;
+import nbbrd.service.ServiceProvider;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+@DirectImpl
+@ServiceProvider
+public final class EmbeddedBuilder implements Builder {
+
+    @Override
+    public @NonNull String getBuilderId() {
+        return "embedded";
+    }
+
+    @Override
+    public @NonNull String getBuilderName() {
+        return "Embedded Maven";
+    }
+
+    @Override
+    public boolean isBuilderAvailable() {
+        return EmbeddedMaven.isMavenHome(EmbeddedMaven.getMavenHome());
+    }
+
+    @Override
+    public int getBuilderCost() {
+        return 10;
+    }
+
+    @Override
+    public @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent) throws IOException {
+        Path mavenHome = EmbeddedMaven.getMavenHome();
+        if (mavenHome == null) {
+            throw new IOException("Maven home not found: set MAVEN_HOME or maven.home");
+        }
+        return CommandLineBuild.builder().onEvent(onEvent).embedded(EmbeddedMaven.open(mavenHome)).build();
+    }
+}
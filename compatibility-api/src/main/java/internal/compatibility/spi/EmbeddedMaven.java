@@ -0,0 +1,368 @@
+package internal.compatibility.spi;
+
+import lombok.NonNull;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.sys.OS;
+import nbbrd.io.text.TextParser;
+import org.jspecify.annotations.Nullable;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs Maven commands in-process by hosting the Maven CLI of a local Maven installation.
+ * <p>
+ * A single Plexus container is kept alive across calls, so that the Maven components are wired once and that the
+ * plugin realms are cached instead of being loaded by every call. Projects declaring core extensions in
+ * <code>.mvn/extensions.xml</code> get a container of their own that is disposed after the call.
+ * <p>
+ * The Maven CLI relies on global state such as system properties and standard streams, so a single call runs
+ * in-process at a time; concurrent calls are delegated to a separate Maven process instead of waiting.
+ */
+final class EmbeddedMaven implements TextRunner, Closeable {
+
+    private static final String MAVEN_CLI = "org.apache.maven.cli.MavenCli";
+    private static final String CLI_REQUEST = "org.apache.maven.cli.CliRequest";
+    private static final String EXIT_EXCEPTION = "org.apache.maven.cli.MavenCli$ExitException";
+    private static final String CLASS_WORLD = "org.codehaus.plexus.classworlds.ClassWorld";
+    private static final String CLASS_REALM = "org.codehaus.plexus.classworlds.realm.ClassRealm";
+    private static final String PLEXUS_CONTAINER = "org.codehaus.plexus.PlexusContainer";
+    private static final String CORE_REALM = "plexus.core";
+    private static final String MULTI_MODULE_PROJECT_DIRECTORY = "maven.multiModuleProjectDirectory";
+
+    // same sequence as MavenCli.doMain(CliRequest), split around the creation of the container
+    private static final String[] BEFORE_CONTAINER = {"initialize", "cli", "properties", "logging", "informativeCommands", "version"};
+    private static final String[] AFTER_CONTAINER = {"commands", "configure", "toolchains", "populateRequest", "encryption"};
+
+    public static @NonNull EmbeddedMaven open(@NonNull Path mavenHome) throws IOException {
+        if (!isMavenHome(mavenHome)) {
+            throw new IOException("Invalid Maven home: " + mavenHome);
+        }
+        URLClassLoader loader = new URLClassLoader(getJars(mavenHome), ClassLoader.getSystemClassLoader().getParent());
+        try {
+            return new EmbeddedMaven(mavenHome, loader);
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            loader.close();
+            throw new IOException("Failed to load Maven from " + mavenHome, ex);
+        }
+    }
+
+    public static @Nullable Path getMavenHome() {
+        String result = System.getenv("MAVEN_HOME");
+        if (result == null) result = System.getProperty("maven.home");
+        return result != null ? Paths.get(result) : null;
+    }
+
+    public static boolean isMavenHome(@Nullable Path mavenHome) {
+        if (mavenHome == null || !Files.isDirectory(mavenHome.resolve("lib"))) return false;
+        try (Stream<Path> files = Files.list(mavenHome.resolve("lib"))) {
+            return files.anyMatch(file -> file.getFileName().toString().startsWith("maven-embedder-"));
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private final Path mavenHome;
+    private final URLClassLoader loader;
+    private final Object classWorld;
+    private final Object cli;
+    private final Constructor<?> newRequest;
+    private final Field workingDirectory;
+    private final List<Method> beforeContainer;
+    private final Method createContainer;
+    private final List<Method> afterContainer;
+    private final Method execute;
+    private final Method getContainerRealm;
+    private final Method dispose;
+    private final Method getRealms;
+    private final Method getRealmId;
+    private final Method disposeRealm;
+    private final Lock lock = new ReentrantLock();
+    private final InheritableThreadLocal<OutputStream> capture = new InheritableThreadLocal<>();
+
+    private @Nullable Object container = null;
+
+    private EmbeddedMaven(Path mavenHome, URLClassLoader loader) throws ReflectiveOperationException {
+        this.mavenHome = mavenHome;
+        this.loader = loader;
+
+        Class<?> classWorldClass = loader.loadClass(CLASS_WORLD);
+        Class<?> cliClass = loader.loadClass(MAVEN_CLI);
+        Class<?> requestClass = loader.loadClass(CLI_REQUEST);
+        Class<?> containerClass = loader.loadClass(PLEXUS_CONTAINER);
+
+        this.classWorld = classWorldClass.getConstructor(String.class, ClassLoader.class).newInstance(CORE_REALM, loader);
+        this.cli = cliClass.getConstructor(classWorldClass).newInstance(classWorld);
+        this.newRequest = accessible(requestClass.getDeclaredConstructor(String[].class, classWorldClass));
+        this.workingDirectory = accessible(requestClass.getDeclaredField("workingDirectory"));
+        this.beforeContainer = getSteps(cliClass, requestClass, BEFORE_CONTAINER);
+        this.createContainer = accessible(cliClass.getDeclaredMethod("container", requestClass));
+        this.afterContainer = getSteps(cliClass, requestClass, AFTER_CONTAINER);
+        this.execute = accessible(cliClass.getDeclaredMethod("execute", requestClass));
+        this.getContainerRealm = containerClass.getMethod("getContainerRealm");
+        this.dispose = containerClass.getMethod("dispose");
+        this.getRealms = classWorldClass.getMethod("getRealms");
+        this.getRealmId = loader.loadClass(CLASS_REALM).getMethod("getId");
+        this.disposeRealm = classWorldClass.getMethod("disposeRealm", String.class);
+    }
+
+    @Override
+    public <X> X run(@NonNull List<String> commands, @NonNull Charset charset, @NonNull TextParser<X> parser) throws IOException {
+        if (!lock.tryLock()) {
+            return runProcess(commands, charset, parser);
+        }
+        try {
+            return runInProcess(commands, charset, parser);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <X> X runProcess(List<String> commands, Charset charset, TextParser<X> parser) throws IOException {
+        List<String> result = new ArrayList<>(commands);
+        result.set(0, mavenHome.resolve("bin").resolve(OS.NAME.equals(OS.Name.WINDOWS) ? "mvn.cmd" : "mvn").toString());
+        return PROCESS.run(result, charset, parser);
+    }
+
+    private <X> X runInProcess(List<String> commands, Charset charset, TextParser<X> parser) throws IOException {
+        List<String> arguments = toArguments(commands);
+        Path workingDir = getWorkingDir(arguments);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int exitCode;
+
+        Thread thread = Thread.currentThread();
+        ClassLoader oldLoader = thread.getContextClassLoader();
+        PrintStream oldOut = System.out;
+        PrintStream oldErr = System.err;
+        String oldMavenHome = System.getProperty("maven.home");
+        String oldProjectDir = System.getProperty(MULTI_MODULE_PROJECT_DIRECTORY);
+        try (PrintStream out = new PrintStream(output, true, charset.name())) {
+            thread.setContextClassLoader(loader);
+            // the output of the threads that are not part of this call is left untouched
+            capture.set(out);
+            System.setOut(new PrintStream(new RoutingOutputStream(capture, oldOut), true, charset.name()));
+            System.setErr(new PrintStream(new RoutingOutputStream(capture, oldErr), true, charset.name()));
+            System.setProperty("maven.home", mavenHome.toString());
+            System.setProperty(MULTI_MODULE_PROJECT_DIRECTORY, workingDir.toString());
+            exitCode = hasCoreExtensions(workingDir)
+                    ? doMainWithOwnContainer(arguments, workingDir, out)
+                    : doMain(arguments, workingDir, out, false);
+        } catch (ReflectiveOperationException ex) {
+            throw new IOException("Failed to run Maven from " + mavenHome, ex);
+        } finally {
+            capture.remove();
+            thread.setContextClassLoader(oldLoader);
+            System.setOut(oldOut);
+            System.setErr(oldErr);
+            restoreProperty("maven.home", oldMavenHome);
+            restoreProperty(MULTI_MODULE_PROJECT_DIRECTORY, oldProjectDir);
+        }
+
+        String text = new String(output.toByteArray(), charset);
+        if (exitCode != 0) {
+            throw new IOException("Invalid exit value: " + exitCode + " " + text);
+        }
+        return parser.parseReader(new StringReader(text));
+    }
+
+    private int doMainWithOwnContainer(List<String> arguments, Path workingDir, PrintStream out) throws ReflectiveOperationException {
+        // realms of core extensions and plugins would otherwise clash with those of the next calls
+        Set<String> realms = getRealmIds();
+        try {
+            return doMain(arguments, workingDir, out, true);
+        } finally {
+            for (String realm : getRealmIds()) {
+                if (!realms.contains(realm)) {
+                    disposeRealm.invoke(classWorld, realm);
+                }
+            }
+        }
+    }
+
+    private int doMain(List<String> arguments, Path workingDir, PrintStream out, boolean ownContainer) throws ReflectiveOperationException {
+        Object request = newRequest.newInstance(arguments.toArray(new String[0]), classWorld);
+        workingDirectory.set(request, workingDir.toString());
+        Object localContainer = null;
+        try {
+            invokeAll(beforeContainer, request);
+            if (ownContainer) {
+                localContainer = createContainer.invoke(cli, request);
+            } else if (container == null) {
+                container = createContainer.invoke(cli, request);
+            } else {
+                Thread.currentThread().setContextClassLoader((ClassLoader) getContainerRealm.invoke(container));
+            }
+            invokeAll(afterContainer, request);
+            return (int) execute.invoke(cli, request);
+        } catch (InvocationTargetException ex) {
+            return getExitCode(ex.getCause(), out);
+        } finally {
+            if (localContainer != null) {
+                dispose.invoke(localContainer);
+            }
+        }
+    }
+
+    private static int getExitCode(Throwable cause, PrintStream out) throws ReflectiveOperationException {
+        if (cause.getClass().getName().equals(EXIT_EXCEPTION)) {
+            return accessible(cause.getClass().getDeclaredField("exitCode")).getInt(cause);
+        }
+        out.println("[ERROR] " + cause);
+        return 1;
+    }
+
+    private Set<String> getRealmIds() throws ReflectiveOperationException {
+        Set<String> result = new HashSet<>();
+        for (Object realm : (Collection<?>) getRealms.invoke(classWorld)) {
+            result.add((String) getRealmId.invoke(realm));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (container != null) {
+                dispose.invoke(container);
+                container = null;
+            }
+        } catch (ReflectiveOperationException ex) {
+            throw new IOException("Failed to dispose Maven container", ex);
+        } finally {
+            lock.unlock();
+            loader.close();
+        }
+    }
+
+    /**
+     * Sends the bytes written by the threads of the current call to its capture and the other ones to the original
+     * stream.
+     */
+    @lombok.RequiredArgsConstructor
+    private static final class RoutingOutputStream extends OutputStream {
+
+        private final ThreadLocal<OutputStream> capture;
+        private final OutputStream original;
+
+        @Override
+        public void write(int b) throws IOException {
+            getTarget().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            getTarget().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            getTarget().flush();
+        }
+
+        private OutputStream getTarget() {
+            OutputStream result = capture.get();
+            return result != null ? result : original;
+        }
+    }
+
+    @VisibleForTesting
+    static List<String> toArguments(List<String> commands) {
+        return commands
+                .stream()
+                .skip(1)
+                .map(EmbeddedMaven::unquote)
+                .collect(toList());
+    }
+
+    private static String unquote(String argument) {
+        return argument.length() >= 2 && argument.startsWith("\"") && argument.endsWith("\"")
+                ? argument.substring(1, argument.length() - 1)
+                : argument;
+    }
+
+    private static Path getWorkingDir(List<String> arguments) {
+        int index = arguments.indexOf("-f");
+        if (index != -1 && index + 1 < arguments.size()) {
+            Path file = Paths.get(arguments.get(index + 1)).toAbsolutePath();
+            return Files.isDirectory(file) ? file : file.getParent();
+        }
+        return Paths.get("").toAbsolutePath();
+    }
+
+    private static boolean hasCoreExtensions(Path workingDir) {
+        return Files.isRegularFile(workingDir.resolve(".mvn").resolve("extensions.xml"));
+    }
+
+    private static void restoreProperty(String key, String value) {
+        if (value != null) System.setProperty(key, value);
+        else System.clearProperty(key);
+    }
+
+    private static List<Method> getSteps(Class<?> cliClass, Class<?> requestClass, String[] names) throws NoSuchMethodException {
+        List<Method> result = new ArrayList<>();
+        for (String name : names) {
+            result.add(accessible(cliClass.getDeclaredMethod(name, requestClass)));
+        }
+        return result;
+    }
+
+    private void invokeAll(List<Method> steps, Object request) throws ReflectiveOperationException {
+        for (Method step : steps) {
+            step.invoke(cli, request);
+        }
+    }
+
+    private static <T extends java.lang.reflect.AccessibleObject> T accessible(T object) {
+        object.setAccessible(true);
+        return object;
+    }
+
+    private static URL[] getJars(Path mavenHome) throws IOException {
+        List<URL> result = new ArrayList<>();
+        for (String dir : new String[]{"boot", "lib"}) {
+            Path folder = mavenHome.resolve(dir);
+            if (Files.isDirectory(folder)) {
+                try (Stream<Path> files = Files.list(folder)) {
+                    for (Path file : files.filter(EmbeddedMaven::isJar).sorted().collect(toList())) {
+                        result.add(toURL(file));
+                    }
+                }
+            }
+        }
+        return result.toArray(new URL[0]);
+    }
+
+    private static boolean isJar(Path file) {
+        return file.getFileName().toString().endsWith(".jar");
+    }
+
+    private static URL toURL(Path file) throws IOException {
+        try {
+            return file.toUri().toURL();
+        } catch (MalformedURLException ex) {
+            throw new IOException(ex);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package internal.compatibility.spi;
+
+import internal.compatibility.Hashes;
+import lombok.NonNull;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.text.TextParser;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * JVM options that reduce the startup time of short-lived Maven processes.
+ * <p>
+ * The JIT compiler stops at its first tier and the serial garbage collector is used, which suits processes that only
+ * run a few seconds. The classes of Maven core are loaded from an AppCDS archive that is dumped by the first process
+ * run with this profile and mapped by the next ones. The options are appended to <code>MAVEN_OPTS</code> and ignored
+ * by JVMs that do not support them. Once the archive is available, the startup time of Maven is measured with and
+ * without this profile and reported as an event.
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+final class FastStartProfile implements TextRunner {
+
+    static @NonNull FastStartProfile of(@NonNull Properties properties, @Nullable Path mvn, @NonNull Consumer<? super String> onEvent) {
+        String tmpDir = properties.getProperty("java.io.tmpdir");
+        Path binary = mvn != null ? mvn : MvnCommand.getDefaultBinary();
+        Path archive = tmpDir != null ? Paths.get(tmpDir).resolve("compatibility-" + getName(binary) + ".jsa") : null;
+        // options are split on spaces by the launcher scripts
+        return new FastStartProfile(binary, archive != null && !archive.toString().contains(" ") ? archive : null, onEvent);
+    }
+
+    private final @NonNull Path binary;
+    private final @Nullable Path archive;
+    private final @NonNull Consumer<? super String> onEvent;
+    private final AtomicBoolean dumped = new AtomicBoolean(false);
+    private final AtomicBoolean dumping = new AtomicBoolean(false);
+    private final AtomicBoolean measured = new AtomicBoolean(false);
+
+    @VisibleForTesting
+    List<String> getOptions(boolean dump) {
+        List<String> result = new ArrayList<>();
+        result.add("-XX:+IgnoreUnrecognizedVMOptions");
+        result.add("-XX:TieredStopAtLevel=1");
+        result.add("-XX:+UseSerialGC");
+        if (archive != null) {
+            if (dump) {
+                result.add("-Xshare:auto");
+                result.add("-XX:ArchiveClassesAtExit=" + archive);
+            } else if (!dumping.get() && Files.isRegularFile(archive)) {
+                result.add("-Xshare:auto");
+                // recreated if the JDK or Maven has changed since it was dumped
+                result.add("-XX:+AutoCreateSharedArchive");
+                result.add("-XX:SharedArchiveFile=" + archive);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public <X> X run(@NonNull List<String> commands, @NonNull Charset charset, @NonNull TextParser<X> parser) throws IOException {
+        // the archive is dumped once by the first short-lived goal while the concurrent ones run without it
+        if (archive != null && !Files.isRegularFile(archive) && dumped.compareAndSet(false, true)) {
+            dumping.set(true);
+            try {
+                long start = System.nanoTime();
+                X result = withOptions(getOptions(true)).run(commands, charset, parser);
+                if (Files.isRegularFile(archive)) {
+                    onEvent.accept("Dumped AppCDS archive " + archive + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                }
+                return result;
+            } finally {
+                dumping.set(false);
+            }
+        }
+        if (!dumping.get() && measured.compareAndSet(false, true)) {
+            measure();
+        }
+        return withOptions(getOptions(false)).run(commands, charset, parser);
+    }
+
+    private void measure() {
+        MvnCommand version = MvnCommand.builder().binary(binary).quiet(true).batchMode(true).goal("--version").build();
+        try {
+            long before = time(version, TextRunner.PROCESS);
+            long after = time(version, withOptions(getOptions(false)));
+            onEvent.accept("Maven startup: " + before + " ms by default, " + after + " ms with fast-start profile");
+        } catch (IOException ex) {
+            onEvent.accept("Failed to measure Maven startup: " + ex.getMessage());
+        }
+    }
+
+    private static long time(MvnCommand command, TextRunner runner) throws IOException {
+        long start = System.nanoTime();
+        command.toBuilder().runner(runner).build().toTextProcessor().process();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static TextRunner withOptions(List<String> options) {
+        String mavenOpts = System.getenv("MAVEN_OPTS");
+        String value = String.join(" ", options);
+        return TextRunner.ofProcess(Collections.singletonMap("MAVEN_OPTS", mavenOpts != null && !mavenOpts.trim().isEmpty() ? mavenOpts + " " + value : value));
+    }
+
+    private static String getName(Path binary) {
+        return Hashes.sha256(binary.toAbsolutePath().toString()).substring(0, 16);
+    }
+}
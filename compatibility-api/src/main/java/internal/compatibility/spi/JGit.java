@@ -0,0 +1,235 @@
+package internal.compatibility.spi;
+
+import lombok.NonNull;
+import nbbrd.compatibility.Ref;
+import nbbrd.compatibility.spi.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.JGitInternalException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevTag;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * In-process implementation of {@link Git} based on JGit.
+ * Repositories are kept open until they are released or until this object is closed, so that tags and files are read
+ * from a cached object database without spawning any process.
+ */
+@lombok.RequiredArgsConstructor
+final class JGit implements Git, Closeable {
+
+    private final @NonNull Consumer<? super String> onEvent;
+
+    private final Map<Path, Repository> repositories = new ConcurrentHashMap<>();
+
+    @Override
+    public void restore(@NonNull Path project) throws IOException {
+        onEvent.accept("jgit restore " + project);
+        call(() -> wrap(project).checkout().setAllPaths(true).call());
+    }
+
+    @Override
+    public void checkoutTag(@NonNull Path project, @NonNull Ref ref) throws IOException {
+        onEvent.accept("jgit checkout " + ref.getName());
+        call(() -> wrap(project).checkout().setName(Constants.R_TAGS + ref.getName()).call());
+    }
+
+    @Override
+    public @NonNull String getCommitId(@NonNull Path project, @NonNull Ref ref) throws IOException {
+        ObjectId result = open(project).resolve(Constants.R_TAGS + ref.getName() + "^{commit}");
+        if (result == null) {
+            throw new IOException("Failed to get commit id of " + ref.getName());
+        }
+        return result.name();
+    }
+
+    @Override
+    public @NonNull List<Ref> getTags(@NonNull Path project) throws IOException {
+        Repository repository = open(project);
+        List<TagEntry> result = new ArrayList<>();
+        try (RevWalk walk = new RevWalk(repository)) {
+            for (org.eclipse.jgit.lib.Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_TAGS)) {
+                PersonIdent creator = getCreator(walk, walk.parseAny(ref.getObjectId()));
+                result.add(new TagEntry(Repository.shortenRefName(ref.getName()), creator));
+            }
+        }
+        result.sort(Comparator.comparingLong(TagEntry::getTime).thenComparing(TagEntry::getName));
+        return result.stream().map(TagEntry::toRef).collect(toList());
+    }
+
+    @Override
+    public @NonNull List<Ref> getRemoteTags(@NonNull URI from) throws IOException {
+        onEvent.accept("jgit ls-remote " + from);
+        return call(() -> org.eclipse.jgit.api.Git.lsRemoteRepository()
+                .setRemote(from.toString())
+                .setTags(true)
+                .setHeads(false)
+                .call())
+                .stream()
+                .map(ref -> Ref.of(null, Repository.shortenRefName(ref.getName())))
+                .collect(toList());
+    }
+
+    @Override
+    public byte @Nullable [] readFile(@NonNull Path project, @NonNull Ref ref, @NonNull String path) throws IOException {
+        Repository repository = open(project);
+        ObjectId tree = repository.resolve(Constants.R_TAGS + ref.getName() + "^{tree}");
+        if (tree == null) {
+            return null;
+        }
+        try (TreeWalk walk = TreeWalk.forPath(repository, path, tree)) {
+            return walk != null ? repository.open(walk.getObjectId(0)).getBytes() : null;
+        }
+    }
+
+    @Override
+    public void clone(@NonNull URI from, @NonNull Path to) throws IOException {
+        onEvent.accept("jgit clone " + from + " " + to);
+        call(() -> {
+            org.eclipse.jgit.api.Git.cloneRepository()
+                    .setURI(from.toString())
+                    .setDirectory(to.toFile())
+                    .call()
+                    .close();
+            return null;
+        });
+    }
+
+    @Override
+    public void mirror(@NonNull URI from, @NonNull Path to) throws IOException {
+        if (Files.isDirectory(to)) {
+            onEvent.accept("jgit fetch " + to);
+            call(() -> wrap(to).fetch().setRemote("origin").setRemoveDeletedRefs(true).call());
+        } else {
+            onEvent.accept("jgit clone --mirror " + from + " " + to);
+            call(() -> {
+                org.eclipse.jgit.api.Git.cloneRepository()
+                        .setURI(from.toString())
+                        .setDirectory(to.toFile())
+                        .setMirror(true)
+                        .call()
+                        .close();
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void fetchTags(@NonNull Path project) throws IOException {
+        onEvent.accept("jgit fetch --tags " + project);
+        call(() -> wrap(project)
+                .fetch()
+                .setRemote("origin")
+                .setRefSpecs(new RefSpec("+" + Constants.R_TAGS + "*:" + Constants.R_TAGS + "*"))
+                .setRemoveDeletedRefs(true)
+                .call());
+    }
+
+    @Override
+    public void release(@NonNull Path project) {
+        Repository repository = repositories.remove(getKey(project));
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        repositories.values().forEach(Repository::close);
+        repositories.clear();
+    }
+
+    private org.eclipse.jgit.api.Git wrap(Path project) throws IOException {
+        return org.eclipse.jgit.api.Git.wrap(open(project));
+    }
+
+    private Repository open(Path project) throws IOException {
+        Path key = getKey(project);
+        Repository result = repositories.get(key);
+        if (result == null) {
+            Path dotGit = key.resolve(Constants.DOT_GIT);
+            FileRepositoryBuilder builder = new FileRepositoryBuilder().setMustExist(true);
+            if (Files.isDirectory(dotGit)) {
+                builder.setWorkTree(key.toFile()).setGitDir(dotGit.toFile());
+            } else {
+                builder.setGitDir(key.toFile());
+            }
+            result = builder.build();
+            Repository previous = repositories.putIfAbsent(key, result);
+            if (previous != null) {
+                result.close();
+                result = previous;
+            }
+        }
+        return result;
+    }
+
+    private static Path getKey(Path project) {
+        return project.toAbsolutePath().normalize();
+    }
+
+    private static PersonIdent getCreator(RevWalk walk, RevObject object) throws IOException {
+        // same as %(creatordate): tagger date of annotated tags, committer date otherwise
+        while (object instanceof RevTag) {
+            RevTag tag = (RevTag) object;
+            if (tag.getTaggerIdent() != null) {
+                return tag.getTaggerIdent();
+            }
+            object = walk.parseAny(tag.getObject());
+        }
+        return object instanceof RevCommit ? ((RevCommit) object).getCommitterIdent() : null;
+    }
+
+    private static <T> T call(GitCall<T> call) throws IOException {
+        try {
+            return call.call();
+        } catch (GitAPIException | JGitInternalException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface GitCall<T> {
+
+        T call() throws GitAPIException, IOException;
+    }
+
+    @lombok.Value
+    private static class TagEntry {
+
+        String name;
+        @Nullable
+        PersonIdent creator;
+
+        long getTime() {
+            return creator != null ? creator.getWhen().getTime() : Long.MAX_VALUE;
+        }
+
+        Ref toRef() {
+            LocalDate date = creator != null
+                    ? creator.getWhen().toInstant().atZone(creator.getTimeZone().toZoneId()).toLocalDate()
+                    : null;
+            return Ref.of(date, name);
+        }
+    }
+}
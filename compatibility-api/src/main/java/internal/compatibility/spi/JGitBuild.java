@@ -0,0 +1,135 @@
+package internal.compatibility.spi;
+
+import lombok.NonNull;
+import nbbrd.compatibility.Artifact;
+import nbbrd.compatibility.Filter;
+import nbbrd.compatibility.Ref;
+import nbbrd.compatibility.Version;
+import nbbrd.compatibility.spi.Build;
+import nbbrd.compatibility.spi.Maven;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Build that runs Git operations in-process with JGit and delegates Maven operations.
+ */
+@lombok.RequiredArgsConstructor
+final class JGitBuild implements Build {
+
+    private final @NonNull Build maven;
+
+    private final @NonNull JGit git;
+
+    @Override
+    public void clean(@NonNull Path project) throws IOException {
+        maven.clean(project);
+    }
+
+    @Override
+    public @Nullable String verify(@NonNull Path project) throws IOException {
+        return maven.verify(project);
+    }
+
+    @Override
+    public @Nullable String verify(@NonNull Path project, @NonNull VerifyOptions options) throws IOException {
+        return maven.verify(project, options);
+    }
+
+    @Override
+    public @NonNull Version getProjectVersion(@NonNull Path project) throws IOException {
+        return maven.getProjectVersion(project);
+    }
+
+    @Override
+    public @Nullable Version getArtifactVersion(@NonNull Path project, @NonNull Artifact artifact) throws IOException {
+        return maven.getArtifactVersion(project, artifact);
+    }
+
+    @Override
+    public void setArtifactVersion(@NonNull Path project, @NonNull Artifact artifact, @NonNull Version version) throws IOException {
+        maven.setArtifactVersion(project, artifact, version);
+    }
+
+    @Override
+    public @Nullable Version getArtifactLatestRelease(@NonNull Artifact artifact) throws IOException {
+        return maven.getArtifactLatestRelease(artifact);
+    }
+
+    @Override
+    public @NonNull Version getMavenVersion() throws IOException {
+        return maven.getMavenVersion();
+    }
+
+    @Override
+    public void restore(@NonNull Path project) throws IOException {
+        git.restore(project);
+    }
+
+    @Override
+    public void checkoutTag(@NonNull Path project, @NonNull Ref ref) throws IOException {
+        git.checkoutTag(project, ref);
+    }
+
+    @Override
+    public @NonNull String getCommitId(@NonNull Path project, @NonNull Ref ref) throws IOException {
+        return git.getCommitId(project, ref);
+    }
+
+    @Override
+    public @NonNull List<Ref> getTags(@NonNull Path project) throws IOException {
+        return git.getTags(project);
+    }
+
+    @Override
+    public @NonNull List<Ref> getTags(@NonNull Path project, @NonNull Filter filter) throws IOException {
+        return git.getTags(project, filter);
+    }
+
+    @Override
+    public @NonNull List<Ref> getRemoteTags(@NonNull URI from) throws IOException {
+        return git.getRemoteTags(from);
+    }
+
+    @Override
+    public byte @Nullable [] readFile(@NonNull Path project, @NonNull Ref ref, @NonNull String path) throws IOException {
+        return git.readFile(project, ref, path);
+    }
+
+    @Override
+    public void clone(@NonNull URI from, @NonNull Path to) throws IOException {
+        git.clone(from, to);
+    }
+
+    @Override
+    public void clone(@NonNull URI from, @NonNull Path to, @NonNull CloneStrategy strategy, @NonNull Filter filter) throws IOException {
+        git.clone(from, to, strategy, filter);
+    }
+
+    @Override
+    public void mirror(@NonNull URI from, @NonNull Path to) throws IOException {
+        git.mirror(from, to);
+    }
+
+    @Override
+    public void fetchTags(@NonNull Path project) throws IOException {
+        git.fetchTags(project);
+    }
+
+    @Override
+    public void release(@NonNull Path project) {
+        git.release(project);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            git.close();
+        } finally {
+            maven.close();
+        }
+    }
+}
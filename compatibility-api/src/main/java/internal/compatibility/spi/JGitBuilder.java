@@ -0,0 +1,45 @@
+package internal.compatibility.spi;
+
+import lombok.NonNull;
+import nbbrd.compatibility.spi.Build;
+import nbbrd.compatibility.spi.Builder;
+import nbbrd.design.DirectImpl;
+import nbbrd.service.ServiceProvider;
+
+import java.util.function.Consumer;
+
+@DirectImpl
+@ServiceProvider
+public final class JGitBuilder implements Builder {
+
+    @Override
+    public @NonNull String getBuilderId() {
+        return "jgit";
+    }
+
+    @Override
+    public @NonNull String getBuilderName() {
+        return "JGit";
+    }
+
+    @Override
+    public boolean isBuilderAvailable() {
+        return true;
+    }
+
+    @Override
+    public int getBuilderCost() {
+        return 5;
+    }
+
+    @Override
+    public @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent) {
+        return getBuild(onEvent, BuildOptions.DEFAULT);
+    }
+
+    @Override
+    public @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent, @NonNull BuildOptions options) {
+        // the options only apply to the Maven operations
+        return new JGitBuild(new CommandLineBuilder().getBuild(onEvent, options), new JGit(onEvent));
+    }
+}
@@ -36,12 +36,27 @@ class MvnCommand implements TextCommand {
     @lombok.Builder.Default
     FailStrategy failStrategy = FailStrategy.FAIL_FAST;
 
+    @lombok.Singular
+    List<String> projects;
+
+    @lombok.Builder.Default
+    boolean alsoMake = false;
+
+    @lombok.Builder.Default
+    boolean alsoMakeDependents = false;
+
+    @Nullable
+    String threads;
+
     @lombok.Singular
     List<String> goals;
 
     @lombok.Singular
     Map<String, String> properties;
 
+    @Nullable
+    TextRunner runner;
+
     public @NonNull MvnCommand withProperty(@NonNull String key, @Nullable String value) {
         return toBuilder().property(key, value).build();
     }
@@ -68,6 +83,16 @@ class MvnCommand implements TextCommand {
                 result.add("-fn");
                 break;
         }
+        if (!projects.isEmpty()) {
+            result.add("-pl");
+            result.add(String.join(",", projects));
+        }
+        if (alsoMake) result.add("-am");
+        if (alsoMakeDependents) result.add("-amd");
+        if (threads != null) {
+            result.add("-T");
+            result.add(threads);
+        }
         result.addAll(goals);
         properties.forEach((k, v) -> {
             result.add("-D");
@@ -76,6 +101,12 @@ class MvnCommand implements TextCommand {
         return result;
     }
 
+    @Override
+    public @NonNull TextProcessor toTextProcessor() {
+        TextProcessor result = TextCommand.super.toTextProcessor();
+        return runner != null ? result.withRunner(runner) : result;
+    }
+
     private static String formatUserProperty(String key, String value) {
         return value != null
                 ? "\"" + key + '=' + value + "\""
@@ -0,0 +1,74 @@
+package internal.compatibility.spi;
+
+import lombok.NonNull;
+import nbbrd.compatibility.spi.Build;
+import nbbrd.compatibility.spi.Builder;
+import nbbrd.design.DirectImpl;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.sys.OS;
+import nbbrd.service.ServiceProvider;
+import org.jspecify.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+@DirectImpl
+@ServiceProvider
+public final class MvndBuilder implements Builder {
+
+    @Override
+    public @NonNull String getBuilderId() {
+        return "mvnd";
+    }
+
+    @Override
+    public @NonNull String getBuilderName() {
+        return "Maven Daemon";
+    }
+
+    @Override
+    public boolean isBuilderAvailable() {
+        return getDefaultBinary() != null;
+    }
+
+    @Override
+    public int getBuilderCost() {
+        return 20;
+    }
+
+    @Override
+    public @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent) throws IOException {
+        Path binary = getDefaultBinary();
+        if (binary == null) {
+            throw new IOException("Maven Daemon not found: set MVND_HOME or add mvnd to the PATH");
+        }
+        return CommandLineBuild.builder().onEvent(onEvent).mvn(binary).daemons(MvndDaemons.open(binary, onEvent)).build();
+    }
+
+    @VisibleForTesting
+    static @Nullable Path getDefaultBinary() {
+        return lookupBinary(System.getenv("MVND_HOME"), System.getenv("PATH"));
+    }
+
+    @VisibleForTesting
+    static @Nullable Path lookupBinary(@Nullable String mvndHome, @Nullable String path) {
+        String binaryName = OS.NAME.equals(OS.Name.WINDOWS) ? "mvnd.cmd" : "mvnd";
+        if (mvndHome != null) {
+            Path result = Paths.get(mvndHome).resolve("bin").resolve(binaryName);
+            if (Files.isRegularFile(result)) return result;
+        }
+        if (path != null) {
+            for (String dir : path.split(Pattern.quote(File.pathSeparator))) {
+                if (dir.isEmpty()) continue;
+                Path result = Paths.get(dir).resolve(binaryName);
+                if (Files.isRegularFile(result)) return result;
+            }
+        }
+        return null;
+    }
+}
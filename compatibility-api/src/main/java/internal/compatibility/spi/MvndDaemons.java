@@ -0,0 +1,65 @@
+package internal.compatibility.spi;
+
+import internal.compatibility.Files2;
+import lombok.NonNull;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.text.TextParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Maven Daemon instances that belong to a single build.
+ * <p>
+ * The daemons are registered in a private storage directory, so that stopping them leaves the daemons of the user and
+ * of concurrent runs untouched.
+ *
+ * @see <a href="https://github.com/apache/maven-mvnd">Maven Daemon</a>
+ */
+@lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+final class MvndDaemons implements TextRunner, Closeable {
+
+    static @NonNull MvndDaemons open(@NonNull Path mvnd, @NonNull Consumer<? super String> onEvent) throws IOException {
+        return new MvndDaemons(mvnd, Files.createTempDirectory("mvnd"), onEvent);
+    }
+
+    private final Path mvnd;
+    private final Path storage;
+    private final Consumer<? super String> onEvent;
+
+    @Override
+    public <X> X run(@NonNull List<String> commands, @NonNull Charset charset, @NonNull TextParser<X> parser) throws IOException {
+        return PROCESS.run(withStorage(commands), charset, parser);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            TextProcessor
+                    .builder()
+                    .commands(withStorage(Arrays.asList(mvnd.toString(), "--stop")))
+                    .build()
+                    .withListener(onEvent)
+                    .process();
+        } finally {
+            Files2.deleteRecursively(storage);
+        }
+    }
+
+    @VisibleForTesting
+    List<String> withStorage(List<String> commands) {
+        // client options must not be quoted like the user properties of MvnCommand
+        List<String> result = new ArrayList<>(commands);
+        result.add(1, "-D" + DAEMON_STORAGE_PROPERTY + "=" + storage);
+        return result;
+    }
+
+    private static final String DAEMON_STORAGE_PROPERTY = "mvnd.daemonStorage";
+}
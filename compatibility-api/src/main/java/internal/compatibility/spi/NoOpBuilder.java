@@ -26,6 +26,11 @@ public enum NoOpBuilder implements Builder {
         return false;
     }
 
+    @Override
+    public int getBuilderCost() {
+        return Integer.MAX_VALUE;
+    }
+
     @Override
     public @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent) throws IOException {
         throw new IOException(getBuilderName());
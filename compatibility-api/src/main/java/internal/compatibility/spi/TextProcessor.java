@@ -4,6 +4,7 @@ import lombok.NonNull;
 import nbbrd.io.text.TextParser;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -12,6 +13,7 @@ import java.util.stream.Collector;
 
 import static internal.compatibility.Collectors2.consuming;
 import static java.lang.System.lineSeparator;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.util.stream.Collectors.joining;
 
 @lombok.Value
@@ -28,9 +30,13 @@ class TextProcessor {
     @lombok.Builder.Default
     Consumer<? super String> listener = TextProcessor::ignore;
 
+    @lombok.With
+    @lombok.Builder.Default
+    TextRunner runner = TextRunner.PROCESS;
+
     public <X> X process(@NonNull Collector<? super String, ?, X> collector) throws IOException {
         listener.accept(String.join(" ", commands));
-        return TextParser.onParsingLines(collector).parseProcess(fixProcess(), charset);
+        return runner.run(commands, charset, TextParser.onParsingLines(collector));
     }
 
     public void process() throws IOException {
@@ -41,10 +47,20 @@ class TextProcessor {
         return process(joining(lineSeparator()));
     }
 
-    private Process fixProcess() throws IOException {
-        return new ProcessBuilder(commands)
-                .redirectErrorStream(true)
-                .start();
+    public byte[] processToBytes() throws IOException {
+        listener.accept(String.join(" ", commands));
+        // ISO-8859-1 maps each byte to a single char and back so the output is not altered
+        return runner.run(commands, ISO_8859_1, TextParser.onParsingReader(TextProcessor::readFully)).getBytes(ISO_8859_1);
+    }
+
+    private static String readFully(Reader reader) throws IOException {
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[8192];
+        int count;
+        while ((count = reader.read(buffer)) != -1) {
+            result.append(buffer, 0, count);
+        }
+        return result.toString();
     }
 
     private static void ignore(Object ignore) {
@@ -0,0 +1,34 @@
+package internal.compatibility.spi;
+
+import lombok.NonNull;
+import nbbrd.io.text.TextParser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+interface TextRunner {
+
+    <X> X run(@NonNull List<String> commands, @NonNull Charset charset, @NonNull TextParser<X> parser) throws IOException;
+
+    TextRunner PROCESS = ofProcess(Collections.emptyMap());
+
+    /**
+     * Creates a runner that starts a process with additional environment variables.
+     *
+     * @param environment the variables to add to the environment of the current process
+     * @return a non-null runner
+     */
+    static @NonNull TextRunner ofProcess(@NonNull Map<String, String> environment) {
+        return new TextRunner() {
+            @Override
+            public <X> X run(@NonNull List<String> commands, @NonNull Charset charset, @NonNull TextParser<X> parser) throws IOException {
+                ProcessBuilder builder = new ProcessBuilder(commands).redirectErrorStream(true);
+                builder.environment().putAll(environment);
+                return parser.parseProcess(builder.start(), charset);
+            }
+        };
+    }
+}
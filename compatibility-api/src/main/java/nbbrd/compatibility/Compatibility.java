@@ -1,9 +1,20 @@
 package nbbrd.compatibility;
 
 import internal.compatibility.Broker;
+import internal.compatibility.BuildCacheExtension;
+import internal.compatibility.Journal;
+import internal.compatibility.MirrorCache;
+import internal.compatibility.PomEditor;
 import internal.compatibility.ProjectContext;
+import internal.compatibility.ProjectVersionResolver;
+import internal.compatibility.ResultCache;
 import internal.compatibility.SourceContext;
 import internal.compatibility.TargetContext;
+import internal.compatibility.VersionCache;
+import internal.compatibility.WorkspaceCleaner;
+import internal.compatibility.WorkspaceMaterializer;
+import internal.compatibility.WorkspacePool;
+import internal.compatibility.WorkspaceSnapshot;
 import internal.compatibility.spi.NoOpBuilder;
 import lombok.NonNull;
 import nbbrd.compatibility.spi.*;
@@ -13,18 +24,38 @@ import nbbrd.io.sys.SystemProperties;
 import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import static internal.compatibility.IOStreams.*;
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Locale.ROOT;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static nbbrd.compatibility.ExitStatus.*;
 
@@ -36,13 +67,26 @@ public class Compatibility {
     public static @NonNull Compatibility ofServiceLoader() {
         return Compatibility
                 .builder()
-                .builder(BuilderLoader.load().orElse(NoOpBuilder.INSTANCE))
+                .builder(BuilderLoader.load().stream().findFirst().orElse(NoOpBuilder.INSTANCE))
                 .formats(FormatLoader.load())
                 .versionings(VersioningLoader.load())
                 .interceptors(InterceptorLoader.load())
                 .build();
     }
 
+    @StaticFactoryMethod
+    public static @NonNull Compatibility ofServiceLoader(@NonNull String builderId) throws IllegalArgumentException {
+        List<nbbrd.compatibility.spi.Builder> builders = BuilderLoader.load();
+        return ofServiceLoader()
+                .toBuilder()
+                .builder(builders
+                        .stream()
+                        .filter(item -> item.getBuilderId().equals(builderId))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown builder '" + builderId + "', expecting one of " + builders.stream().map(nbbrd.compatibility.spi.Builder::getBuilderId).collect(toList()))))
+                .build();
+    }
+
     @lombok.Builder.Default
     nbbrd.compatibility.spi.Builder builder = NoOpBuilder.INSTANCE;
 
@@ -69,6 +113,74 @@ public class Compatibility {
     @lombok.Singular
     List<Interceptor> interceptors;
 
+    @lombok.Builder.Default
+    int threads = 1;
+
+    @Nullable
+    Path cacheDir;
+
+    @lombok.Builder.Default
+    int cacheSize = DEFAULT_CACHE_SIZE;
+
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    @Nullable
+    Path journalFile;
+
+    @Nullable
+    Path mirrorDir;
+
+    @lombok.Builder.Default
+    long mirrorSize = DEFAULT_MIRROR_SIZE;
+
+    public static final long DEFAULT_MIRROR_SIZE = 10L * 1024 * 1024 * 1024;
+
+    @Nullable
+    Path poolDir;
+
+    @lombok.Builder.Default
+    long poolSize = DEFAULT_POOL_SIZE;
+
+    public static final long DEFAULT_POOL_SIZE = 50L * 1024 * 1024 * 1024;
+
+    @Nullable
+    Path outputDir;
+
+    /**
+     * Directory receiving the full output of each check; null to keep only the error lines and the tail of the output.
+     */
+    @Nullable
+    Path logDir;
+
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Maven.Verification verification = Maven.Verification.VERIFY;
+
+    boolean escalation;
+
+    @Nullable
+    Path buildCacheDir;
+
+    boolean affectedModulesOnly;
+
+    /**
+     * Reactor threads of each verification in the format of <code>-T</code>, such as <code>4</code> or
+     * <code>1C</code>, or {@link #AUTO_REACTOR_THREADS} to share the cores between the concurrent checks; null for a
+     * sequential build.
+     */
+    @Nullable
+    String reactorThreads;
+
+    public static final String AUTO_REACTOR_THREADS = "auto";
+
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Git.CloneStrategy cloneStrategy = Git.CloneStrategy.FULL;
+
+    boolean resume;
+
+    boolean fastStart;
+
     public @NonNull Report check(@NonNull Job job) throws IOException {
         if (job.getSources().isEmpty()) {
             onEvent.accept("No source provided");
@@ -79,23 +191,75 @@ public class Compatibility {
             return Report.EMPTY;
         }
         onEvent.accept("Using builder " + builder.getBuilderId());
-        try (Build build = builder.getBuild(onDebug)) {
-            Report result = checkAll(
-                    build,
-                    collectWithIO(job.getSources(), mappingWithIO(source -> initSource(source, build), toList())),
-                    collectWithIO(job.getTargets(), mappingWithIO(target -> initTarget(target, build), toList()))
-            );
-            onEvent.accept("Report created with " + result.getItems().size() + " items");
-            return result;
+        Journal journal = openJournal();
+        nbbrd.compatibility.spi.Builder.BuildOptions options = nbbrd.compatibility.spi.Builder.BuildOptions
+                .builder()
+                .fastStart(fastStart)
+                .build();
+        // the cleaner is closed first so that the working directory is left empty
+        try (Build build = builder.getBuild(onDebug, options); WorkspaceCleaner cleaner = WorkspaceCleaner.open(workingDir)) {
+            ProjectVersionResolver resolver = new ProjectVersionResolver();
+            Map<Path, WorkspacePool.Lease> leases = new ConcurrentHashMap<>();
+            Path outputs = outputDir != null ? Files.createTempDirectory(Files.createDirectories(outputDir), "outputs") : null;
+            try {
+                ProjectContext.Cloner cloner = getCloner(build, openMirrors(), openPool(), leases);
+                Report result = checkAll(
+                        build,
+                        cleaner,
+                        leases,
+                        outputs,
+                        journal,
+                        collectWithIO(selectProjects(job.getSources(), build), mappingWithIO(source -> initSource(source, build, resolver, cloner), toList())),
+                        collectWithIO(selectProjects(job.getTargets(), build), mappingWithIO(target -> initTarget(target, build, resolver, cloner), toList()))
+                );
+                onEvent.accept("Report created with " + result.getItems().size() + " items");
+                if (journal != null) {
+                    journal.delete();
+                }
+                return result;
+            } finally {
+                // workspaces left by a failure are restored when they are leased again
+                forEachWithIO(leases.values(), WorkspacePool.Lease::close);
+                if (outputs != null) {
+                    cleaner.delete(outputs);
+                }
+            }
         }
     }
 
-    private SourceContext initSource(Source source, Build build) throws IOException {
+    private <P extends Project> List<P> selectProjects(List<P> projects, Build build) throws IOException {
+        List<P> result = new ArrayList<>();
+        for (P project : projects) {
+            if (isFileScheme(project.getUri()) || hasMatchingRemoteTag(project, build)) {
+                result.add(project);
+            } else {
+                onEvent.accept(format(ROOT, "Skipping remote project %s: no tag matches the filter", project.getUri()));
+            }
+        }
+        return result;
+    }
+
+    private boolean hasMatchingRemoteTag(Project project, Build build) {
+        // remote tags have no date so only the ref part of the filter can be checked before cloning
+        Filter filter = project.getFilter();
+        if (filter.getLimit() == 0) {
+            return false;
+        }
+        try {
+            return build.getRemoteTags(project.getUri()).stream().anyMatch(filter::containsRef);
+        } catch (IOException ex) {
+            // the project is cloned and its tags are filtered afterwards
+            onDebug.accept("Cannot list remote tags of " + project.getUri() + ": " + ex.getMessage());
+            return true;
+        }
+    }
+
+    private SourceContext initSource(Source source, Build build, ProjectVersionResolver resolver, ProjectContext.Cloner cloner) throws IOException {
         boolean local = isFileScheme(source.getUri());
         onEvent.accept(format(ROOT, "Initializing %s source %s", local ? "local" : "remote", source.getUri()));
         return SourceContext
                 .builder()
-                .init(source, local, workingDir, build)
+                .init(source, local, workingDir, build, resolver, cloner, this::materialize)
                 .versioning(resolveVersioning(source))
                 .broker(resolveBroker(source))
                 .build();
@@ -109,12 +273,12 @@ public class Compatibility {
                 .orElseThrow(() -> new IOException("Cannot resolve versioning: " + source.getVersioning()));
     }
 
-    private TargetContext initTarget(Target target, Build build) throws IOException {
+    private TargetContext initTarget(Target target, Build build, ProjectVersionResolver resolver, ProjectContext.Cloner cloner) throws IOException {
         boolean local = isFileScheme(target.getUri());
         onEvent.accept(format(ROOT, "Initializing %s target %s", local ? "local" : "remote", target.getUri()));
         return TargetContext
                 .builder()
-                .init(target, local, workingDir, build)
+                .init(target, local, workingDir, build, resolver, cloner, this::materialize)
                 .logErrors(target.isLogErrors())
                 .build();
     }
@@ -125,27 +289,367 @@ public class Compatibility {
         throw new IOException("Cannot resolve broker");
     }
 
-    private Report checkAll(Build build, List<SourceContext> sources, List<TargetContext> targets) throws IOException {
-        long count = sources.stream().mapToLong(o -> o.getVersions().size()).sum()
-                * targets.stream().mapToLong(o -> o.getVersions().size()).sum();
-        int index = 0;
-        Report.Builder result = Report.builder();
-        for (SourceContext source : sources) {
-            for (RefVersion sourceVersion : source.getVersions()) {
-                for (TargetContext target : targets) {
-                    for (RefVersion targetVersion : target.getVersions()) {
-                        onEvent.accept("Checking " + ++index + "/" + count + " " + ReportItem.toLabel(source.getUri(), sourceVersion) + " -> " + ReportItem.toLabel(target.getUri(), targetVersion));
-                        result.item(checkItem(build, source, sourceVersion, target, targetVersion));
+    private @Nullable Journal openJournal() throws IOException {
+        if (journalFile == null) {
+            if (resume) {
+                onEvent.accept("Cannot resume without journal file");
+            }
+            return null;
+        }
+        Journal result = Journal.open(
+                journalFile,
+                getParserByFile(Report.class, journalFile).orElseThrow(() -> new IOException("No parser found for " + journalFile)),
+                getFormatterByFile(Report.class, journalFile).orElseThrow(() -> new IOException("No formatter found for " + journalFile)),
+                resume
+        );
+        if (resume) {
+            onEvent.accept("Resuming with " + result.size() + " items from journal " + journalFile);
+        }
+        return result;
+    }
+
+    private Report checkAll(Build build, WorkspaceCleaner cleaner, Map<Path, WorkspacePool.Lease> leases, @Nullable Path outputs, @Nullable Journal journal, List<SourceContext> sources, List<TargetContext> targets) throws IOException {
+        List<Cell> cells = getCells(sources, targets);
+        List<Column> columns = getColumns(cells);
+        int workerCount = Math.max(1, Math.min(threads, columns.size()));
+        Session session = new Session(build, cleaner, leases, outputs, resolveReactorThreads(workerCount), new Progress(cells.size()), new VersionCache(), openCache(), journal, resolveBuildCacheDir(build));
+        ReportItem[] items = new ReportItem[cells.size()];
+        if (workerCount > 1) {
+            checkAllInParallel(session, workerCount, columns, items);
+        } else {
+            for (Column column : columns) {
+                column.store(checkColumn(session, column, column.getTarget()), items);
+            }
+        }
+        forEachWithIO(sources, context -> clean(session, context));
+        forEachWithIO(targets, context -> clean(session, context));
+        return Report.builder().items(Arrays.asList(items)).build();
+    }
+
+    private void checkAllInParallel(Session session, int workerCount, List<Column> columns, ReportItem[] items) throws IOException {
+        onEvent.accept("Using " + workerCount + " workers");
+        List<Worker> workers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(new Worker());
+            }
+            BlockingQueue<Worker> idleWorkers = new ArrayBlockingQueue<>(workerCount, false, workers);
+            List<Future<List<ReportItem>>> futures = new ArrayList<>();
+            for (Column column : columns) {
+                futures.add(executor.submit(() -> {
+                    Worker worker = idleWorkers.take();
+                    try {
+                        return checkColumn(session, column, getWorkerTarget(session.getBuild(), worker, column));
+                    } finally {
+                        idleWorkers.put(worker);
+                    }
+                }));
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).store(getResult(futures.get(i)), items);
+            }
+        } finally {
+            executor.shutdownNow();
+            forEachWithIO(workers, worker -> worker.clean(session.getBuild(), session.getCleaner()));
+        }
+    }
+
+    private TargetContext getWorkerTarget(Build build, Worker worker, Column column) throws IOException {
+        // a worker only copies the targets of the columns it handles
+        TargetContext result = worker.getTargets().get(column.getTargetIndex());
+        if (result == null) {
+            TargetContext target = column.getTarget();
+            Path directory = Files.createTempDirectory(workingDir, "worker");
+            result = target.toBuilder().directory(directory).build();
+            worker.getTargets().put(column.getTargetIndex(), result);
+            // partial and shallow repositories are copied since they cannot be cloned locally
+            if (isFileScheme(target.getUri()) || (mirrorDir == null && cloneStrategy != Git.CloneStrategy.FULL)) {
+                materialize(target.getDirectory(), directory);
+            } else {
+                build.clone(target.getDirectory().toUri(), directory);
+            }
+        }
+        return result;
+    }
+
+    private List<ReportItem> checkColumn(Session session, Column column, TargetContext target) throws IOException {
+        Build build = session.getBuild();
+        Path project = target.getDirectory();
+        RefVersion targetVersion = column.getTargetVersion();
+        List<Cell> cells = column.getCells();
+
+        List<String> keys = getCacheKeys(session, column, target);
+        List<ReportItem> result = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i++) {
+            result.add(getCompletedItem(session, keys.get(i), cells.get(i), target));
+        }
+
+        if (result.contains(null)) {
+            if (targetVersion.requiresCheckout()) {
+                build.checkoutTag(project, targetVersion.getRef());
+            }
+            if (session.getOutputs() != null) {
+                WorkspacePool.linkBuildOutputs(project, session.getOutputs());
+            }
+            // unchanged modules are restored from the build cache shared by all cells and runs
+            try (BuildCacheExtension ignore = session.getBuildCacheDir() != null ? BuildCacheExtension.install(project, session.getBuildCacheDir()) : null) {
+                WorkspaceSnapshot snapshot = WorkspaceSnapshot.of(project);
+                // the reactor is analyzed once per target version and binding
+                Map<Broker, List<String>> modules = new HashMap<>();
+
+                for (int i = 0; i < cells.size(); i++) {
+                    if (result.get(i) == null) {
+                        Cell cell = cells.get(i);
+                        onEvent.accept("Checking " + session.getProgress().next() + " " + toLabel(cell, target));
+                        List<String> affected = modules.get(cell.getSource().getBroker());
+                        if (affected == null) {
+                            affected = getAffectedModules(cell.getSource().getBroker(), project);
+                            modules.put(cell.getSource().getBroker(), affected);
+                        }
+                        ReportItem item = checkItem(session, cell.getSource(), cell.getSourceVersion(), target, targetVersion, snapshot, affected);
+                        putCachedItem(session, keys.get(i), item);
+                        putJournalItem(session, item);
+                        result.set(i, item);
                     }
                 }
             }
+
+            if (targetVersion.requiresCheckout()) {
+                build.restore(project);
+            }
         }
-        forEachWithIO(sources, ProjectContext::clean);
-        forEachWithIO(targets, ProjectContext::clean);
-        return result.build();
+
+        return result;
+    }
+
+    private void materialize(Path from, Path to) throws IOException {
+        WorkspaceMaterializer.Stats stats = WorkspaceMaterializer.materialize(from, to);
+        onEvent.accept(format(ROOT, "Materialized %s: %d bytes copied, %d bytes avoided", from, stats.getCopiedBytes(), stats.getAvoidedBytes()));
+    }
+
+    private ProjectContext.Cloner getCloner(Build build, @Nullable MirrorCache mirrors, @Nullable WorkspacePool pool, Map<Path, WorkspacePool.Lease> leases) {
+        return (from, filter) -> {
+            WorkspacePool.Lease lease = pool != null ? pool.acquire(from) : null;
+            if (lease == null) {
+                Path result = Files.createTempDirectory(workingDir, "project");
+                // mirrors are full clones so the strategy only applies to direct clones
+                if (mirrors == null) {
+                    build.clone(from, result, cloneStrategy, filter);
+                } else if (!cloneFromMirror(build, mirrors, from, result)) {
+                    // workers expect a full clone when mirrors are enabled
+                    build.clone(from, result, Git.CloneStrategy.FULL, filter);
+                }
+                return result;
+            }
+            Path result = lease.getDirectory();
+            leases.put(result, lease);
+            if (lease.isReady() && refresh(build, result)) {
+                onEvent.accept("Reusing pooled workspace " + result);
+                return result;
+            }
+            lease.reset();
+            // pooled workspaces are full clones of the remote project so that they can fetch new tags and be cloned locally
+            build.clone(from, result, Git.CloneStrategy.FULL, filter);
+            lease.setReady();
+            return result;
+        };
+    }
+
+    private boolean cloneFromMirror(Build build, MirrorCache mirrors, URI from, Path to) {
+        try {
+            mirrors.clone(build, from, to);
+            return true;
+        } catch (IOException ex) {
+            onDebug.accept("Cannot clone " + from + " from mirror: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private boolean refresh(Build build, Path workspace) {
+        try {
+            build.restore(workspace);
+            build.fetchTags(workspace);
+            build.getTags(workspace);
+            return true;
+        } catch (IOException ex) {
+            onDebug.accept("Discarding pooled workspace " + workspace + ": " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private static void clean(Session session, ProjectContext context) throws IOException {
+        WorkspacePool.Lease lease = session.getLeases().remove(context.getDirectory());
+        if (lease != null) {
+            session.getBuild().release(context.getDirectory());
+            lease.close();
+        } else {
+            context.clean(session.getBuild(), session.getCleaner());
+        }
+    }
+
+    private @Nullable MirrorCache openMirrors() throws IOException {
+        return mirrorDir != null ? MirrorCache.open(mirrorDir, mirrorSize) : null;
+    }
+
+    private @Nullable WorkspacePool openPool() throws IOException {
+        return poolDir != null ? WorkspacePool.open(poolDir, poolSize) : null;
+    }
+
+    private @Nullable ResultCache openCache() throws IOException {
+        return cacheDir != null ? ResultCache.open(cacheDir, cacheSize) : null;
+    }
+
+    public void clearCache() throws IOException {
+        ResultCache cache = openCache();
+        if (cache != null) {
+            onEvent.accept("Clearing cache " + cacheDir);
+            cache.clear();
+        }
+    }
+
+    private List<String> getCacheKeys(Session session, Column column, TargetContext target) throws IOException {
+        List<String> result = new ArrayList<>();
+        String commitId = session.getCache() != null && column.getTargetVersion().requiresCheckout()
+                ? getCommitId(session.getBuild(), target, column.getTargetVersion().getRef())
+                : null;
+        for (Cell cell : column.getCells()) {
+            // local sources and targets might change without changing their version
+            result.add(commitId != null && cell.getSourceVersion().requiresCheckout()
+                    ? String.join("\n",
+                    commitId,
+                    // forks share the coordinates of their upstream but not their results
+                    cell.getSource().getUri().toString(),
+                    cell.getSource().getBroker().toString(),
+                    cell.getSourceVersion().getVersion().toString(),
+                    builder.getBuilderId(),
+                    "verification=" + verification,
+                    "affectedModulesOnly=" + affectedModulesOnly,
+                    "logErrors=" + target.isLogErrors(),
+                    "interceptors=" + interceptors.stream().map(Object::toString).collect(joining(",")))
+                    : null);
+        }
+        return result;
+    }
+
+    private @Nullable String getCommitId(Build build, TargetContext target, Ref ref) {
+        try {
+            return build.getCommitId(target.getDirectory(), ref);
+        } catch (IOException ex) {
+            // results are not cached without a commit id
+            onDebug.accept("Cannot cache results of " + target.getUri() + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private @Nullable ReportItem getCompletedItem(Session session, @Nullable String key, Cell cell, TargetContext target) throws IOException {
+        ReportItem result = getJournalItem(session, cell, target);
+        if (result != null) {
+            onEvent.accept("Checking " + session.getProgress().next() + " " + toLabel(cell, target) + " (resumed)");
+            return result;
+        }
+        result = getCachedItem(session, key, cell, target);
+        if (result != null) {
+            onEvent.accept("Checking " + session.getProgress().next() + " " + toLabel(cell, target) + " (cached)");
+            putJournalItem(session, result);
+            return result;
+        }
+        return null;
+    }
+
+    private static @Nullable ReportItem getJournalItem(Session session, Cell cell, TargetContext target) {
+        return session.getJournal() != null
+                ? session.getJournal().get(cell.getSource().getUri(), cell.getSourceVersion(), target.getUri(), cell.getTargetVersion())
+                : null;
+    }
+
+    private static void putJournalItem(Session session, ReportItem item) throws IOException {
+        if (session.getJournal() != null) {
+            session.getJournal().add(item);
+        }
+    }
+
+    private static @Nullable ReportItem getCachedItem(Session session, @Nullable String key, Cell cell, TargetContext target) throws IOException {
+        if (key == null) {
+            return null;
+        }
+        ResultCache.Entry entry = requireNonNull(session.getCache()).get(key);
+        if (entry == null) {
+            return null;
+        }
+        return ReportItem
+                .builder()
+                .exitStatus(entry.getExitStatus())
+                .exitMessage(entry.getExitMessage())
+                .source(cell.getSource().getUri(), cell.getSourceVersion())
+                .target(target.getUri(), cell.getTargetVersion())
+                .build();
+    }
+
+    private static void putCachedItem(Session session, @Nullable String key, ReportItem item) throws IOException {
+        if (key != null) {
+            requireNonNull(session.getCache()).put(key, new ResultCache.Entry(item.getExitStatus(), withoutLogReference(item.getExitMessage())));
+        }
+    }
+
+    private static @Nullable String withoutLogReference(@Nullable String message) {
+        // log files belong to the run that wrote them and may be gone when the result is reused
+        return message != null ? LOG_REFERENCE.matcher(message).replaceAll("") : null;
+    }
+
+    private static final Pattern LOG_REFERENCE = Pattern.compile("\\R" + Pattern.quote("Full log: ") + ".*$");
+
+    private static String toLabel(Cell cell, TargetContext target) {
+        return ReportItem.toLabel(cell.getSource().getUri(), cell.getSourceVersion()) + " -> " + ReportItem.toLabel(target.getUri(), cell.getTargetVersion());
+    }
+
+    private @Nullable String resolveReactorThreads(int workerCount) {
+        if (!AUTO_REACTOR_THREADS.equalsIgnoreCase(reactorThreads)) {
+            return reactorThreads;
+        }
+        // rounded up since reactor builds rarely keep all their threads busy
+        int cores = Runtime.getRuntime().availableProcessors();
+        String result = Integer.toString(Math.max(1, (cores + workerCount - 1) / workerCount));
+        onEvent.accept("Using " + result + " reactor threads per worker");
+        return result;
     }
 
-    private ReportItem checkItem(Build build, SourceContext source, RefVersion sourceVersion, TargetContext target, RefVersion targetVersion) throws IOException {
+    private @Nullable Path resolveBuildCacheDir(Build build) {
+        if (buildCacheDir == null) {
+            return null;
+        }
+        // older versions of Maven fail to load the extension and would break every build
+        try {
+            Version mavenVersion = build.getMavenVersion();
+            if (BuildCacheExtension.isSupportedBy(mavenVersion)) {
+                return buildCacheDir;
+            }
+            onEvent.accept("Skipping build cache: Maven " + BuildCacheExtension.MIN_MAVEN_VERSION + " or later is required, found " + mavenVersion);
+        } catch (IOException ex) {
+            onEvent.accept("Skipping build cache: " + ex.getMessage());
+        }
+        return null;
+    }
+
+    private @Nullable Path getLogFile(URI sourceUri, RefVersion sourceVersion, URI targetUri, RefVersion targetVersion) throws IOException {
+        if (logDir == null) {
+            return null;
+        }
+        String name = ReportItem.toLabel(sourceUri, sourceVersion) + "_" + ReportItem.toLabel(targetUri, targetVersion);
+        return Files.createDirectories(logDir).resolve(name.replaceAll("[^A-Za-z0-9@._-]", "_") + ".log");
+    }
+
+    private List<String> getAffectedModules(Broker broker, Path project) throws IOException {
+        if (!affectedModulesOnly || !(broker instanceof Broker.ByArtifact)) {
+            return emptyList();
+        }
+        List<String> result = PomEditor.getAffectedModules(project, ((Broker.ByArtifact) broker).getArtifact());
+        onDebug.accept(result.isEmpty() ? "Verifying all modules of " + project : "Verifying modules " + result + " of " + project);
+        return result;
+    }
+
+    private ReportItem checkItem(Session session, SourceContext source, RefVersion sourceVersion, TargetContext target, RefVersion targetVersion, WorkspaceSnapshot snapshot, List<String> modules) throws IOException {
+        Build build = session.getBuild();
         ReportItem.Builder result = ReportItem
                 .builder()
                 .sourceUri(source.getUri())
@@ -155,37 +659,185 @@ public class Compatibility {
 
         Path project = target.getDirectory();
 
-        if (targetVersion.requiresCheckout()) {
-            build.checkoutTag(project, targetVersion.getRef());
-        }
-
-        Version from = source.getBroker().getVersion(build, project);
+        Version from = session.getVersions().getVersion(source.getBroker(), build, project, target.getUri(), targetVersion);
         Version to = sourceVersion.getVersion();
         if (!isSkip(source.getVersioning(), from, to)) {
             source.getBroker().setVersion(build, project, to);
-            String errorMessage = verifyProject(build, project);
+            Maven.VerifyOptions options = Maven.VerifyOptions
+                    .builder()
+                    .verification(verification)
+                    .modules(modules)
+                    .threads(session.getReactorThreads())
+                    .logFile(getLogFile(source.getUri(), sourceVersion, target.getUri(), targetVersion))
+                    .build();
+            String errorMessage = verifyProject(build, project, options);
             if (errorMessage == null) {
-                result.exitStatus(VERIFIED);
+                result.exitStatus(toExitStatus(verification));
             } else {
                 result.exitStatus(BROKEN).exitMessage(target.isLogErrors() ? errorMessage : null);
             }
-            build.clean(project);
+            if (!snapshot.restore(session.getCleaner())) {
+                // existing files other than POM files have been modified or deleted by the build
+                restoreProject(session, project, targetVersion, snapshot);
+            }
         } else {
             result.exitStatus(SKIPPED).exitMessage(format(ROOT, "Skipping check: source version %s is newer than target version %s", from, to));
         }
 
+        return result.build();
+    }
+
+    private void restoreProject(Session session, Path project, RefVersion targetVersion, WorkspaceSnapshot snapshot) throws IOException {
+        Build build = session.getBuild();
+        // local projects are never restored by git since it would discard the uncommitted changes of the user
         if (targetVersion.requiresCheckout()) {
             build.restore(project);
         }
+        build.clean(project);
+        if (!snapshot.restore(session.getCleaner())) {
+            // the changes that survive a clean are kept for the next cells, as before snapshots
+            onEvent.accept("Cannot fully restore project " + project + ": some files have been modified or deleted by the build");
+            snapshot.accept();
+        }
+    }
 
-        return result.build();
+    private static List<Cell> getCells(List<SourceContext> sources, List<TargetContext> targets) {
+        List<Cell> result = new ArrayList<>();
+        for (SourceContext source : sources) {
+            for (RefVersion sourceVersion : source.getVersions()) {
+                for (int targetIndex = 0; targetIndex < targets.size(); targetIndex++) {
+                    TargetContext target = targets.get(targetIndex);
+                    for (RefVersion targetVersion : target.getVersions()) {
+                        result.add(new Cell(result.size(), source, sourceVersion, targetIndex, target, targetVersion));
+                    }
+                }
+            }
+        }
+        return result;
     }
 
-    private @Nullable String verifyProject(Maven maven, Path project) throws IOException {
-        String errorMessage = maven.verify(project);
+    private static List<Column> getColumns(List<Cell> cells) {
+        Map<List<Object>, Column> result = new LinkedHashMap<>();
+        cells.stream()
+                .sorted(Comparator.comparingInt(Cell::getTargetIndex))
+                .forEach(cell -> result
+                        .computeIfAbsent(asList(cell.getTargetIndex(), cell.getTargetVersion()), ignore -> new Column(cell.getTargetIndex(), cell.getTarget(), cell.getTargetVersion(), new ArrayList<>()))
+                        .getCells()
+                        .add(cell));
+        return new ArrayList<>(result.values());
+    }
+
+    private static <T> T getResult(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    @lombok.Value
+    private static class Cell {
+
+        int index;
+        SourceContext source;
+        RefVersion sourceVersion;
+        int targetIndex;
+        TargetContext target;
+        RefVersion targetVersion;
+    }
+
+    /**
+     * All the cells sharing the same target version; they are checked against a single checkout.
+     */
+    @lombok.Value
+    private static class Column {
+
+        int targetIndex;
+        TargetContext target;
+        RefVersion targetVersion;
+        List<Cell> cells;
+
+        void store(List<ReportItem> results, ReportItem[] items) {
+            for (int i = 0; i < cells.size(); i++) {
+                items[cells.get(i).getIndex()] = results.get(i);
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class Worker {
+
+        // a worker is used by a single thread at a time but cleaned by the calling thread
+        Map<Integer, TargetContext> targets = new ConcurrentHashMap<>();
+
+        void clean(Build build, WorkspaceCleaner cleaner) throws IOException {
+            forEachWithIO(targets.values(), context -> context.clean(build, cleaner));
+        }
+    }
+
+    @lombok.Value
+    private static class Session {
+
+        Build build;
+        WorkspaceCleaner cleaner;
+        Map<Path, WorkspacePool.Lease> leases;
+
+        @Nullable
+        Path outputs;
+
+        @Nullable
+        String reactorThreads;
+
+        Progress progress;
+        VersionCache versions;
+
+        @Nullable
+        ResultCache cache;
+
+        @Nullable
+        Journal journal;
+
+        @Nullable
+        Path buildCacheDir;
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class Progress {
+
+        private final int count;
+        private final AtomicInteger index = new AtomicInteger();
+
+        String next() {
+            return index.incrementAndGet() + "/" + count;
+        }
+    }
+
+    private @Nullable String verifyProject(Maven maven, Path project, Maven.VerifyOptions options) throws IOException {
+        if (escalation && options.getVerification() != Maven.Verification.COMPILE) {
+            // deeper checks are only worth running on projects that compile
+            String errorMessage = verifyProjectOnce(maven, project, options.toBuilder().verification(Maven.Verification.COMPILE).build());
+            if (errorMessage != null) {
+                return errorMessage;
+            }
+            // the compiled outputs of the first tier are reused
+            return verifyProjectOnce(maven, project, options.toBuilder().clean(false).build());
+        }
+        return verifyProjectOnce(maven, project, options);
+    }
+
+    private @Nullable String verifyProjectOnce(Maven maven, Path project, Maven.VerifyOptions options) throws IOException {
+        String errorMessage = maven.verify(project, options);
         if (errorMessage != null) {
+            // interceptors retry with the same options
+            Maven scoped = new ScopedMaven(maven, options);
             for (Interceptor interceptor : interceptors) {
-                if (interceptor.onErrorMessage(maven, project, errorMessage, getOnEvent(), getOnDebug()) == null) {
+                if (interceptor.onErrorMessage(scoped, project, errorMessage, getOnEvent(), getOnDebug()) == null) {
                     return null;
                 }
             }
@@ -193,6 +845,66 @@ public class Compatibility {
         return errorMessage;
     }
 
+    private static ExitStatus toExitStatus(Maven.Verification verification) {
+        switch (verification) {
+            case COMPILE:
+                return VALIDATED;
+            case VERIFY:
+                return VERIFIED;
+            case TEST:
+                return TESTED;
+            default:
+                throw new IllegalArgumentException(verification.name());
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class ScopedMaven implements Maven {
+
+        private final Maven maven;
+        private final Maven.VerifyOptions options;
+
+        @Override
+        public void clean(@NonNull Path project) throws IOException {
+            maven.clean(project);
+        }
+
+        @Override
+        public @Nullable String verify(@NonNull Path project) throws IOException {
+            return maven.verify(project, options);
+        }
+
+        @Override
+        public @Nullable String verify(@NonNull Path project, @NonNull VerifyOptions options) throws IOException {
+            return maven.verify(project, options);
+        }
+
+        @Override
+        public @NonNull Version getProjectVersion(@NonNull Path project) throws IOException {
+            return maven.getProjectVersion(project);
+        }
+
+        @Override
+        public @Nullable Version getArtifactVersion(@NonNull Path project, @NonNull Artifact artifact) throws IOException {
+            return maven.getArtifactVersion(project, artifact);
+        }
+
+        @Override
+        public void setArtifactVersion(@NonNull Path project, @NonNull Artifact artifact, @NonNull Version version) throws IOException {
+            maven.setArtifactVersion(project, artifact, version);
+        }
+
+        @Override
+        public @Nullable Version getArtifactLatestRelease(@NonNull Artifact artifact) throws IOException {
+            return maven.getArtifactLatestRelease(artifact);
+        }
+
+        @Override
+        public @NonNull Version getMavenVersion() throws IOException {
+            return maven.getMavenVersion();
+        }
+    }
+
     private static boolean isSkip(Versioning versioning, Version from, Version to) {
         return versioning.getVersionComparator().compare(from, to) > 0;
     }
@@ -37,7 +37,7 @@ public class Filter {
         return (from == null || !from.isAfter(date)) && (to == null || !date.isAfter(to));
     }
 
-    private boolean containsRef(@NonNull Ref ref) {
+    public boolean containsRef(@NonNull Ref ref) {
         return this.ref == null || ref.getName().contains(this.ref);
     }
 
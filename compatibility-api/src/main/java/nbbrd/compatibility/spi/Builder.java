@@ -1,14 +1,12 @@
 package nbbrd.compatibility.spi;
 
 import lombok.NonNull;
-import nbbrd.service.ServiceDefinition;
-import nbbrd.service.ServiceFilter;
-import nbbrd.service.ServiceId;
+import nbbrd.service.*;
 
 import java.io.IOException;
 import java.util.function.Consumer;
 
-@ServiceDefinition
+@ServiceDefinition(quantifier = Quantifier.MULTIPLE)
 public interface Builder {
 
     @ServiceId(pattern = ServiceId.KEBAB_CASE)
@@ -21,9 +19,46 @@ public interface Builder {
     @ServiceFilter
     boolean isBuilderAvailable();
 
+    /**
+     * Gets the cost of this builder, used to pick the default builder when several are available.
+     * The lowest cost comes first.
+     *
+     * @return a cost, {@link #DEFAULT_COST} by default
+     */
+    @ServiceSorter
+    default int getBuilderCost() {
+        return DEFAULT_COST;
+    }
+
+    int DEFAULT_COST = 100;
+
+    @lombok.Value
+    @lombok.Builder(toBuilder = true)
+    class BuildOptions {
+
+        public static final BuildOptions DEFAULT = builder().build();
+
+        /**
+         * Runs the short-lived Maven processes with JVM options that reduce their startup time.
+         */
+        boolean fastStart;
+    }
+
     @NonNull
     Build getBuild(@NonNull Consumer<? super String> onEvent) throws IOException;
 
+    /**
+     * Gets a build with specific options.
+     *
+     * @param onEvent the consumer of the build events
+     * @param options the build options, ignored by default
+     * @return a non-null build
+     * @throws IOException if the build cannot be created
+     */
+    default @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent, @NonNull BuildOptions options) throws IOException {
+        return getBuild(onEvent);
+    }
+
     Consumer<? super String> IGNORE_EVENT = ignore -> {
     };
 }
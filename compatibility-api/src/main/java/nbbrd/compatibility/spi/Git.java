@@ -1,7 +1,9 @@
 package nbbrd.compatibility.spi;
 
 import lombok.NonNull;
+import nbbrd.compatibility.Filter;
 import nbbrd.compatibility.Ref;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.net.URI;
@@ -10,12 +12,126 @@ import java.util.List;
 
 public interface Git {
 
+    enum CloneStrategy {
+
+        /**
+         * Full history and all files.
+         */
+        FULL,
+
+        /**
+         * Full history without file contents, fetched on demand.
+         */
+        BLOBLESS,
+
+        /**
+         * Tagged commits only, without history and without file contents, fetched on demand.
+         * Only the tags that match the ref of the filter of the project are fetched, and its limit when no dates are set.
+         */
+        SHALLOW
+    }
+
     void restore(@NonNull Path project) throws IOException;
 
     void checkoutTag(@NonNull Path project, @NonNull Ref ref) throws IOException;
 
+    /**
+     * Gets the id of the commit pointed by a reference.
+     *
+     * @param project the project directory
+     * @param ref the reference
+     * @return a non-null commit id
+     * @throws IOException if the repository cannot be read or if it is not supported
+     */
+    default @NonNull String getCommitId(@NonNull Path project, @NonNull Ref ref) throws IOException {
+        throw new IOException("Reading commit ids is not supported");
+    }
+
     @NonNull
     List<Ref> getTags(@NonNull Path project) throws IOException;
 
+    /**
+     * Lists the tags of a project that match a filter, sorted by creation date.
+     * Implementations may push the filter down to the repository query.
+     *
+     * @param project the project directory
+     * @param filter the filter to apply
+     * @return a non-null list of refs
+     * @throws IOException if the repository cannot be read
+     */
+    default @NonNull List<Ref> getTags(@NonNull Path project, @NonNull Filter filter) throws IOException {
+        return filter.apply(getTags(project));
+    }
+
+    /**
+     * Lists the tags of a remote project without cloning it.
+     * The resulting refs have no date.
+     *
+     * @param from the remote project
+     * @return a non-null list of refs
+     * @throws IOException if the remote project cannot be queried or if it is not supported
+     */
+    default @NonNull List<Ref> getRemoteTags(@NonNull URI from) throws IOException {
+        throw new IOException("Listing remote tags is not supported");
+    }
+
+    /**
+     * Reads a file of a project at a given reference without checking it out.
+     *
+     * @param project the project directory
+     * @param ref the reference
+     * @param path the path of the file relative to the project root, using forward slashes
+     * @return the content of the file or null if it doesn't exist or cannot be read without a checkout
+     * @throws IOException if the repository cannot be read
+     */
+    default byte @Nullable [] readFile(@NonNull Path project, @NonNull Ref ref, @NonNull String path) throws IOException {
+        return null;
+    }
+
     void clone(@NonNull URI from, @NonNull Path to) throws IOException;
+
+    /**
+     * Clones a remote project using a specific strategy.
+     * The resulting repository must support {@link #getTags(Path)}, {@link #checkoutTag(Path, Ref)} and {@link #readFile(Path, Ref, String)}.
+     * It must contain at least the tags that match the filter.
+     *
+     * @param from the remote project
+     * @param to the target directory
+     * @param strategy the clone strategy
+     * @param filter the filter of the tags that will be checked
+     * @throws IOException if the project cannot be cloned
+     */
+    default void clone(@NonNull URI from, @NonNull Path to, @NonNull CloneStrategy strategy, @NonNull Filter filter) throws IOException {
+        clone(from, to);
+    }
+
+    /**
+     * Creates a bare mirror of a remote project or updates it if it already exists.
+     *
+     * @param from the remote project
+     * @param to the mirror directory
+     * @throws IOException if the mirror cannot be created or updated or if it is not supported
+     */
+    default void mirror(@NonNull URI from, @NonNull Path to) throws IOException {
+        throw new IOException("Mirroring is not supported");
+    }
+
+    /**
+     * Updates the tags of a clone from its origin, including the deleted and moved tags.
+     *
+     * @param project the project directory
+     * @throws IOException if the tags cannot be fetched or if it is not supported
+     */
+    default void fetchTags(@NonNull Path project) throws IOException {
+        throw new IOException("Fetching tags is not supported");
+    }
+
+    /**
+     * Releases the resources held on a project, such as open files, before it is deleted.
+     *
+     * @param project the project directory
+     * @throws IOException if the resources cannot be released
+     */
+    default void release(@NonNull Path project) throws IOException {
+    }
 }
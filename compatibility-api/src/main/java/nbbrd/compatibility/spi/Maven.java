@@ -7,14 +7,87 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 
 public interface Maven {
 
+    enum Verification {
+
+        /**
+         * Compilation of main and test sources.
+         */
+        COMPILE,
+
+        /**
+         * Packaging and integration checks without running the tests.
+         */
+        VERIFY,
+
+        /**
+         * Packaging and integration checks including the tests.
+         */
+        TEST
+    }
+
+    @lombok.Value
+    @lombok.Builder(toBuilder = true)
+    class VerifyOptions {
+
+        public static final VerifyOptions DEFAULT = builder().build();
+
+        @lombok.NonNull
+        @lombok.Builder.Default
+        Verification verification = Verification.VERIFY;
+
+        /**
+         * Relative paths of the modules to verify, including the modules they depend on and the modules that depend on
+         * them; empty for the whole reactor.
+         */
+        @lombok.Singular
+        List<String> modules;
+
+        /**
+         * Reactor threads in the format of <code>-T</code>, such as <code>4</code> or <code>1C</code>; null for a
+         * sequential build.
+         */
+        @Nullable
+        String threads;
+
+        /**
+         * File receiving the full output of the verification; null to keep only the error lines and the tail of the
+         * output.
+         */
+        @Nullable
+        Path logFile;
+
+        /**
+         * Deletes the outputs of previous builds before the verification; false to reuse them.
+         */
+        @lombok.Builder.Default
+        boolean clean = true;
+    }
+
     void clean(@NonNull Path project) throws IOException;
 
     @Nullable
     String verify(@NonNull Path project) throws IOException;
 
+    /**
+     * Verifies a project with specific options.
+     *
+     * @param project the project directory
+     * @param options the verification options
+     * @return the error message or null if the project passes the verification
+     * @throws IOException if the verification cannot be run or if the level is not supported
+     */
+    default @Nullable String verify(@NonNull Path project, @NonNull VerifyOptions options) throws IOException {
+        if (options.getVerification() != Verification.VERIFY) {
+            throw new IOException("Verification level not supported: " + options.getVerification());
+        }
+        // the whole reactor built sequentially is a superset of any selection
+        return verify(project);
+    }
+
     @NonNull
     Version getProjectVersion(@NonNull Path project) throws IOException;
 
@@ -25,4 +98,14 @@ public interface Maven {
 
     @Nullable
     Version getArtifactLatestRelease(@NonNull Artifact artifact) throws IOException;
+
+    /**
+     * Gets the version of Maven itself.
+     *
+     * @return the non-null version of Maven
+     * @throws IOException if the version cannot be read or if this feature is not supported
+     */
+    default @NonNull Version getMavenVersion() throws IOException {
+        throw new IOException("Reading the Maven version is not supported");
+    }
 }
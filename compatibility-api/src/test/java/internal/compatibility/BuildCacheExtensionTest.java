@@ -0,0 +1,80 @@
+package internal.compatibility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+class BuildCacheExtensionTest {
+
+    @Test
+    void testInstallOnProjectWithoutConfig(@TempDir Path tmp) throws IOException {
+        Path project = Files.createDirectory(tmp.resolve("project"));
+        Path cacheDir = tmp.resolve("cache");
+
+        try (BuildCacheExtension ignore = BuildCacheExtension.install(project, cacheDir)) {
+            assertThat(project.resolve(".mvn").resolve("extensions.xml"))
+                    .content(UTF_8)
+                    .contains("<artifactId>maven-build-cache-extension</artifactId>");
+            assertThat(project.resolve(".mvn").resolve("maven.config"))
+                    .content(UTF_8)
+                    .contains("-Dmaven.build.cache.enabled=true")
+                    .contains("-Dmaven.build.cache.location=" + cacheDir.toAbsolutePath());
+            assertThat(cacheDir).isDirectory();
+        }
+
+        assertThat(project).isEmptyDirectory();
+    }
+
+    @Test
+    void testInstallOnProjectWithConfig(@TempDir Path tmp) throws IOException {
+        Path project = Files.createDirectory(tmp.resolve("project"));
+        Path extensionsFile = Files.createDirectory(project.resolve(".mvn")).resolve("extensions.xml");
+        Path configFile = project.resolve(".mvn").resolve("maven.config");
+        String extensions = "<extensions>\n  <extension><groupId>g</groupId><artifactId>a</artifactId><version>1</version></extension>\n</extensions>\n";
+        String config = "-T1C";
+        Files.write(extensionsFile, extensions.getBytes(UTF_8));
+        Files.write(configFile, config.getBytes(UTF_8));
+
+        try (BuildCacheExtension ignore = BuildCacheExtension.install(project, tmp.resolve("cache"))) {
+            assertThat(extensionsFile)
+                    .content(UTF_8)
+                    .contains("<artifactId>a</artifactId>")
+                    .contains("<artifactId>maven-build-cache-extension</artifactId>");
+            assertThat(configFile)
+                    .content(UTF_8)
+                    .startsWith("-T1C\n-Dmaven.build.cache.enabled=true\n");
+        }
+
+        assertThat(extensionsFile).hasContent(extensions);
+        assertThat(configFile).hasContent(config);
+    }
+
+    @Test
+    void testAddExtension() throws IOException {
+        String extensions = BuildCacheExtension.addExtension(null);
+        assertThat(BuildCacheExtension.addExtension(extensions))
+                .describedAs("already declared")
+                .isEqualTo(extensions);
+
+        assertThatIOException()
+                .isThrownBy(() -> BuildCacheExtension.addExtension("<project/>"));
+    }
+
+    @Test
+    void testIsSupportedBy() {
+        assertThat(BuildCacheExtension.isSupportedBy("3.9.0")).isTrue();
+        assertThat(BuildCacheExtension.isSupportedBy("3.9.11")).isTrue();
+        assertThat(BuildCacheExtension.isSupportedBy("3.10.0")).isTrue();
+        assertThat(BuildCacheExtension.isSupportedBy("4.0.0-rc-2")).isTrue();
+        assertThat(BuildCacheExtension.isSupportedBy("3.8.8")).isFalse();
+        assertThat(BuildCacheExtension.isSupportedBy("2.2.1")).isFalse();
+        assertThat(BuildCacheExtension.isSupportedBy("unknown")).isFalse();
+    }
+}
@@ -0,0 +1,64 @@
+package internal.compatibility;
+
+import internal.compatibility.spi.JsonFormat;
+import nbbrd.compatibility.Report;
+import nbbrd.compatibility.ReportItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static nbbrd.compatibility.ExitStatus.BROKEN;
+import static nbbrd.compatibility.ExitStatus.VERIFIED;
+import static nbbrd.compatibility.RefVersion.remoteOf;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalTest {
+
+    @Test
+    void testAddAndResume(@TempDir Path tmp) throws IOException {
+        Path file = tmp.resolve("journal.json");
+
+        Journal x = open(file, false);
+        x.add(first);
+        x.add(second);
+        x.add(first);
+        assertThat(file).hasLineCount(2);
+
+        Files.write(file, "{\"items\":[".getBytes(UTF_8), APPEND);
+
+        Journal y = open(file, true);
+        assertThat(y.size()).isEqualTo(2);
+        assertThat(y.get(first.getSourceUri(), first.getSourceVersion(), first.getTargetUri(), first.getTargetVersion())).isEqualTo(first);
+        assertThat(y.get(second.getSourceUri(), second.getSourceVersion(), second.getTargetUri(), second.getTargetVersion())).isEqualTo(second);
+        assertThat(file).hasLineCount(2);
+
+        assertThat(open(file, false).size()).isZero();
+        assertThat(file).doesNotExist();
+    }
+
+    private static Journal open(Path file, boolean resume) throws IOException {
+        JsonFormat format = new JsonFormat();
+        return Journal.open(file, format.getParser(Report.class), format.getFormatter(Report.class), resume);
+    }
+
+    private final ReportItem first = ReportItem
+            .builder()
+            .exitStatus(VERIFIED)
+            .source(URI.create("https://localhost/source"), remoteOf("1.0.0"))
+            .target(URI.create("https://localhost/target"), remoteOf("2.0.0"))
+            .build();
+
+    private final ReportItem second = ReportItem
+            .builder()
+            .exitStatus(BROKEN)
+            .exitMessage("boom\nbang")
+            .source(URI.create("https://localhost/source"), remoteOf("1.1.0"))
+            .target(URI.create("https://localhost/target"), remoteOf("2.0.0"))
+            .build();
+}
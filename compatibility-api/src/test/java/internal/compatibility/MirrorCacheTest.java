@@ -0,0 +1,61 @@
+package internal.compatibility;
+
+import nbbrd.compatibility.spi.Build;
+import nbbrd.compatibility.spi.Builder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tests.compatibility.MockedBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class MirrorCacheTest {
+
+    @Test
+    void testClone(@TempDir Path tmp) throws IOException {
+        Path dir = tmp.resolve("mirrors");
+        MirrorCache x = MirrorCache.open(dir, Long.MAX_VALUE);
+
+        try (Build build = MockedBuilder.EXAMPLE.getBuild(Builder.IGNORE_EVENT)) {
+            x.clone(build, MockedBuilder.remoteURI("source-project"), tmp.resolve("first"));
+            x.clone(build, MockedBuilder.remoteURI("source-project"), tmp.resolve("second"));
+
+            assertThat(tmp.resolve("first")).isDirectory();
+            assertThat(tmp.resolve("second")).isDirectory();
+            assertThat(countMirrors(dir)).isEqualTo(1);
+            assertThat(build.getTags(tmp.resolve("second"))).hasSize(3);
+        }
+    }
+
+    @Test
+    void testEviction(@TempDir Path tmp) throws IOException {
+        Path dir = tmp.resolve("mirrors");
+        MirrorCache x = MirrorCache.open(dir, 1);
+
+        try (Build build = MockedBuilder.EXAMPLE.getBuild(Builder.IGNORE_EVENT)) {
+            x.clone(build, MockedBuilder.remoteURI("source-project"), tmp.resolve("first"));
+            try (Stream<Path> files = Files.list(dir)) {
+                Files.write(files.filter(Files::isDirectory).findFirst().get().resolve("data"), new byte[10]);
+            }
+            x.clone(build, MockedBuilder.remoteURI("target-project"), tmp.resolve("second"));
+
+            assertThat(countMirrors(dir))
+                    .describedAs("least recently used mirror evicted")
+                    .isEqualTo(1);
+            assertThat(tmp.resolve("first")).isDirectory();
+        }
+
+        assertThatIllegalArgumentException().isThrownBy(() -> MirrorCache.open(dir, 0));
+    }
+
+    private static long countMirrors(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isDirectory).count();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package internal.compatibility;
+
+import nbbrd.compatibility.Artifact;
+import nbbrd.compatibility.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PomEditorTest {
+
+    private static final Artifact SOURCE = Artifact.parse("test:source-project");
+    private static final Version V2 = Version.parse("2.0.0");
+
+    @Test
+    void testDirectVersion(@TempDir Path tmp) throws IOException {
+        write(tmp.resolve("pom.xml"), pom("",
+                "<dependencies>",
+                "  <dependency>",
+                "    <groupId>test</groupId>",
+                "    <artifactId>source-project</artifactId>",
+                "    <version> 1.0.0 </version>",
+                "    <exclusions><exclusion><groupId>other</groupId><artifactId>x</artifactId></exclusion></exclusions>",
+                "  </dependency>",
+                "  <dependency>",
+                "    <groupId>other</groupId>",
+                "    <artifactId>source-project</artifactId>",
+                "    <version>1.0.0</version>",
+                "  </dependency>",
+                "</dependencies>"));
+
+        assertThat(PomEditor.setDependencyVersion(tmp, SOURCE, V2)).isTrue();
+        assertThat(read(tmp.resolve("pom.xml"))).isEqualTo(pom("",
+                "<dependencies>",
+                "  <dependency>",
+                "    <groupId>test</groupId>",
+                "    <artifactId>source-project</artifactId>",
+                "    <version> 2.0.0 </version>",
+                "    <exclusions><exclusion><groupId>other</groupId><artifactId>x</artifactId></exclusion></exclusions>",
+                "  </dependency>",
+                "  <dependency>",
+                "    <groupId>other</groupId>",
+                "    <artifactId>source-project</artifactId>",
+                "    <version>1.0.0</version>",
+                "  </dependency>",
+                "</dependencies>"));
+    }
+
+    @Test
+    void testPropertyInReactor(@TempDir Path tmp) throws IOException {
+        write(tmp.resolve("pom.xml"), pom("",
+                "<modules><module>child</module></modules>",
+                "<properties>",
+                "  <!-- <source.version>0.0.0</source.version> -->",
+                "  <source.version>1.0.0</source.version>",
+                "</properties>",
+                "<dependencyManagement><dependencies>",
+                "  <dependency><groupId>test</groupId><artifactId>source-project</artifactId><version>1.0.0</version></dependency>",
+                "</dependencies></dependencyManagement>"));
+        write(tmp.resolve("child").resolve("pom.xml"), pom("<parent><groupId>test</groupId><artifactId>parent</artifactId><version>1</version></parent>",
+                "<dependencies>",
+                "  <dependency><groupId>test</groupId><artifactId>source-project</artifactId><version>${source.version}</version></dependency>",
+                "  <dependency><groupId>${project.groupId}</groupId><artifactId>sibling</artifactId><version>${project.version}</version></dependency>",
+                "</dependencies>"));
+
+        assertThat(PomEditor.setDependencyVersion(tmp, SOURCE, V2)).isTrue();
+        assertThat(read(tmp.resolve("pom.xml")))
+                .contains("<!-- <source.version>0.0.0</source.version> -->")
+                .contains("<source.version>2.0.0</source.version>")
+                .contains("<artifactId>source-project</artifactId><version>2.0.0</version>");
+        assertThat(read(tmp.resolve("child").resolve("pom.xml")))
+                .contains("<version>${source.version}</version>");
+    }
+
+    @Test
+    void testFallback(@TempDir Path tmp) throws IOException {
+        assertThat(PomEditor.setDependencyVersion(tmp, SOURCE, V2))
+                .describedAs("missing pom")
+                .isFalse();
+
+        String unresolved = pom("",
+                "<dependencies>",
+                "  <dependency><groupId>test</groupId><artifactId>source-project</artifactId><version>${source.version}</version></dependency>",
+                "</dependencies>");
+        write(tmp.resolve("pom.xml"), unresolved);
+        assertThat(PomEditor.setDependencyVersion(tmp, SOURCE, V2))
+                .describedAs("property defined outside reactor")
+                .isFalse();
+        assertThat(read(tmp.resolve("pom.xml"))).isEqualTo(unresolved);
+
+        write(tmp.resolve("pom.xml"), pom("",
+                "<build><plugins><plugin><dependencies>",
+                "  <dependency><groupId>test</groupId><artifactId>source-project</artifactId><version>1.0.0</version></dependency>",
+                "</dependencies></plugin></plugins></build>"));
+        assertThat(PomEditor.setDependencyVersion(tmp, SOURCE, V2))
+                .describedAs("plugin dependencies only")
+                .isFalse();
+    }
+
+    @Test
+    void testGetAffectedModules(@TempDir Path tmp) throws IOException {
+        String dependency = "<dependencies><dependency><groupId>test</groupId><artifactId>source-project</artifactId><version>1.0.0</version></dependency></dependencies>";
+        String modules = "<modules><module>api</module><module>impl</module><module>nested/core</module></modules>";
+        write(tmp.resolve("pom.xml"), pom("", modules));
+        write(tmp.resolve("api").resolve("pom.xml"), pom(""));
+        write(tmp.resolve("impl").resolve("pom.xml"), pom("", dependency));
+        write(tmp.resolve("nested").resolve("core").resolve("pom.xml"), pom("", dependency));
+
+        assertThat(PomEditor.getAffectedModules(tmp, SOURCE))
+                .containsExactly("impl", "nested/core");
+        assertThat(PomEditor.getAffectedModules(tmp, Artifact.parse("other:source-project")))
+                .describedAs("dependency not declared in the reactor")
+                .isEmpty();
+
+        write(tmp.resolve("pom.xml"), pom("", modules, "<dependencyManagement>" + dependency + "</dependencyManagement>"));
+        assertThat(PomEditor.getAffectedModules(tmp, SOURCE))
+                .describedAs("managed version also applies to transitive usages")
+                .isEmpty();
+
+        write(tmp.resolve("pom.xml"), pom("", modules, "<properties><source.version>1.0.0</source.version></properties>"));
+        write(tmp.resolve("impl").resolve("pom.xml"), pom("", dependency.replace("1.0.0", "${source.version}")));
+        assertThat(PomEditor.getAffectedModules(tmp, SOURCE))
+                .describedAs("version defined by a property")
+                .isEmpty();
+
+        write(tmp.resolve("impl").resolve("pom.xml"), pom("", dependency.replace("<version>1.0.0</version>", "")));
+        assertThat(PomEditor.getAffectedModules(tmp, SOURCE))
+                .describedAs("version managed outside the reactor")
+                .isEmpty();
+
+        write(tmp.resolve("impl").resolve("pom.xml"), pom("", dependency));
+        write(tmp.resolve("pom.xml"), pom("", modules, dependency));
+        assertThat(PomEditor.getAffectedModules(tmp, SOURCE))
+                .describedAs("dependency inherited from the root module")
+                .isEmpty();
+
+        write(tmp.resolve("pom.xml"), pom("", dependency));
+        assertThat(PomEditor.getAffectedModules(tmp, SOURCE))
+                .describedAs("single module")
+                .isEmpty();
+    }
+
+    private static String pom(String parent, String... lines) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project>\n"
+                + parent + "\n"
+                + String.join("\n", lines) + "\n"
+                + "</project>\n";
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), UTF_8);
+    }
+}
@@ -38,7 +38,7 @@ class ProjectContextTest {
         try (Build build = MockedBuilder.EXAMPLE.getBuild(Builder.IGNORE_EVENT)) {
             MockedProjectContextBuilder x = new MockedProjectContextBuilder();
 
-            assertThat(x.clear().init(Source.builder().uri(remote).build(), false, workingDir, build).result)
+            assertThat(x.clear().init(Source.builder().uri(remote).build(), false, workingDir, build, new ProjectVersionResolver(), cloner(build, workingDir), WorkspaceMaterializer::materialize).result)
                     .returns(remote, MockedProjectContext::getUri)
                     .returns(getFirstDir(workingDir), MockedProjectContext::getDirectory)
                     .extracting(MockedProjectContext::getVersions, list(RefVersion.class))
@@ -51,7 +51,7 @@ class ProjectContextTest {
             x.result.clean();
             assertThat(workingDir).isEmptyDirectory();
 
-            assertThat(x.clear().init(Source.builder().uri(remote).filter(Filter.builder().limit(2).build()).build(), false, workingDir, build).result)
+            assertThat(x.clear().init(Source.builder().uri(remote).filter(Filter.builder().limit(2).build()).build(), false, workingDir, build, new ProjectVersionResolver(), cloner(build, workingDir), WorkspaceMaterializer::materialize).result)
                     .returns(remote, MockedProjectContext::getUri)
                     .returns(getFirstDir(workingDir), MockedProjectContext::getDirectory)
                     .extracting(MockedProjectContext::getVersions, list(RefVersion.class))
@@ -63,7 +63,7 @@ class ProjectContextTest {
             x.result.clean();
             assertThat(workingDir).isEmptyDirectory();
 
-            assertThat(x.clear().init(Source.builder().uri(local).build(), true, workingDir, build).result)
+            assertThat(x.clear().init(Source.builder().uri(local).build(), true, workingDir, build, new ProjectVersionResolver(), cloner(build, workingDir), WorkspaceMaterializer::materialize).result)
                     .returns(local, MockedProjectContext::getUri)
                     .returns(getFirstDir(workingDir), MockedProjectContext::getDirectory)
                     .extracting(MockedProjectContext::getVersions, list(RefVersion.class))
@@ -111,6 +111,14 @@ class ProjectContextTest {
         }
     }
 
+    private static ProjectContext.Cloner cloner(Build build, Path workingDir) {
+        return (from, filter) -> {
+            Path result = Files.createTempDirectory(workingDir, "project");
+            build.clone(from, result);
+            return result;
+        };
+    }
+
     @MightBePromoted
     private static Path getFirstDir(Path tmp) throws IOException {
         try (Stream<Path> stream = Files.list(tmp)) {
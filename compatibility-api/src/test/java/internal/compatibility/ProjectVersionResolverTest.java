@@ -0,0 +1,88 @@
+package internal.compatibility;
+
+import nbbrd.compatibility.Version;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectVersionResolverTest {
+
+    @Test
+    void testGetProjectVersion() throws IOException {
+        Map<String, String> files = new HashMap<>();
+        AtomicInteger fallbacks = new AtomicInteger();
+        ProjectVersionResolver x = new ProjectVersionResolver();
+
+        assertThat(getProjectVersion(x, files, fallbacks))
+                .describedAs("no pom")
+                .isEqualTo(Version.parse("0.0.0"));
+        assertThat(fallbacks).hasValue(1);
+
+        files.put("pom.xml", "<project><!-- <version>9</version> --><artifactId>a</artifactId><version>1.2.3</version><dependencies><dependency><version>4</version></dependency></dependencies></project>");
+        assertThat(getProjectVersion(x, files, fallbacks)).isEqualTo(Version.parse("1.2.3"));
+        assertThat(fallbacks).hasValue(1);
+
+        files.put("pom.xml", "<project><parent><artifactId>p</artifactId><version>2.0.0</version></parent><artifactId>a</artifactId></project>");
+        assertThat(getProjectVersion(x, files, fallbacks))
+                .describedAs("inherited from parent")
+                .isEqualTo(Version.parse("2.0.0"));
+
+        files.put("pom.xml", "<project><parent><artifactId>p</artifactId><version>${revision}</version><relativePath>parent</relativePath></parent><artifactId>a</artifactId><version>${revision}</version></project>");
+        files.put("parent/pom.xml", "<project><artifactId>p</artifactId><version>${revision}</version><properties><revision>3.0.0${changelist}</revision><changelist>-SNAPSHOT</changelist></properties></project>");
+        assertThat(getProjectVersion(x, files, fallbacks))
+                .describedAs("CI-friendly properties from parent")
+                .isEqualTo(Version.parse("3.0.0-SNAPSHOT"));
+
+        files.put(".mvn/maven.config", "-Dchangelist= -Drevision=3.1.0${changelist}");
+        assertThat(getProjectVersion(x, files, fallbacks))
+                .describedAs("CI-friendly properties from maven.config")
+                .isEqualTo(Version.parse("3.1.0"));
+        assertThat(fallbacks).hasValue(1);
+
+        files.remove(".mvn/maven.config");
+        files.put("pom.xml", "<project><artifactId>a</artifactId><version>${unknown}</version></project>");
+        assertThat(getProjectVersion(x, files, fallbacks))
+                .describedAs("unresolved property")
+                .isEqualTo(Version.parse("0.0.0"));
+        assertThat(fallbacks).hasValue(2);
+        assertThat(getProjectVersion(x, files, fallbacks))
+                .describedAs("cached by content")
+                .isEqualTo(Version.parse("0.0.0"));
+        assertThat(fallbacks).hasValue(2);
+    }
+
+    @Test
+    void testResolvePath() {
+        assertThat(ProjectVersionResolver.resolvePath("pom.xml", "../pom.xml")).isNull();
+        assertThat(ProjectVersionResolver.resolvePath("a/b/pom.xml", "../pom.xml")).isEqualTo("a/pom.xml");
+        assertThat(ProjectVersionResolver.resolvePath("a/pom.xml", "./../parent")).isEqualTo("parent");
+    }
+
+    @Test
+    void testParseMavenConfig() {
+        assertThat(ProjectVersionResolver.parseMavenConfig("-Drevision=1.0 -D sha1=abc\n-Dflag -T 4 -Dchangelist=\"\""))
+                .containsEntry("revision", "1.0")
+                .containsEntry("sha1", "abc")
+                .containsEntry("flag", "true")
+                .containsEntry("changelist", "")
+                .hasSize(4);
+    }
+
+    private static Version getProjectVersion(ProjectVersionResolver x, Map<String, String> files, AtomicInteger fallbacks) throws IOException {
+        return x.getProjectVersion(path -> getBytes(files, path), () -> {
+            fallbacks.incrementAndGet();
+            return Version.parse("0.0.0");
+        });
+    }
+
+    private static byte[] getBytes(Map<String, String> files, String path) {
+        String result = files.get(path);
+        return result != null ? result.getBytes(UTF_8) : null;
+    }
+}
@@ -0,0 +1,63 @@
+package internal.compatibility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static nbbrd.compatibility.ExitStatus.BROKEN;
+import static nbbrd.compatibility.ExitStatus.VERIFIED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ResultCacheTest {
+
+    @Test
+    void testGetAndPut(@TempDir Path tmp) throws IOException {
+        ResultCache x = ResultCache.open(tmp.resolve("cache"), 10);
+
+        assertThat(x.get("a")).isNull();
+
+        x.put("a", new ResultCache.Entry(VERIFIED, null));
+        x.put("b", new ResultCache.Entry(BROKEN, "boom\nbang"));
+
+        assertThat(x.get("a")).isEqualTo(new ResultCache.Entry(VERIFIED, null));
+        assertThat(x.get("b")).isEqualTo(new ResultCache.Entry(BROKEN, "boom\nbang"));
+        assertThat(ResultCache.open(tmp.resolve("cache"), 10).get("b")).isEqualTo(new ResultCache.Entry(BROKEN, "boom\nbang"));
+
+        x.clear();
+        assertThat(x.get("a")).isNull();
+        assertThat(x.get("b")).isNull();
+    }
+
+    @Test
+    void testEviction(@TempDir Path tmp) throws IOException {
+        ResultCache x = ResultCache.open(tmp, 2);
+
+        x.put("a", new ResultCache.Entry(VERIFIED, null));
+        setAllLastModifiedTime(tmp, 1000);
+        x.put("b", new ResultCache.Entry(VERIFIED, null));
+        setAllLastModifiedTime(tmp, 2000);
+        assertThat(x.get("a")).isNotNull();
+        x.put("c", new ResultCache.Entry(VERIFIED, null));
+
+        assertThat(x.get("a")).isNotNull();
+        assertThat(x.get("b")).isNull();
+        assertThat(x.get("c")).isNotNull();
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ResultCache.open(tmp, 0));
+    }
+
+    private static void setAllLastModifiedTime(Path dir, long millis) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(millis));
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package internal.compatibility;
+
+import lombok.NonNull;
+import nbbrd.compatibility.Artifact;
+import nbbrd.compatibility.RefVersion;
+import nbbrd.compatibility.Version;
+import nbbrd.compatibility.spi.Maven;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static nbbrd.compatibility.RefVersion.remoteOf;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionCacheTest {
+
+    @Test
+    void testGetVersion() throws IOException {
+        CountingMaven maven = new CountingMaven();
+        VersionCache x = new VersionCache();
+
+        List<URI> targetUris = Arrays.asList(URI.create("https://localhost/target1"), URI.create("https://localhost/target2"));
+        List<RefVersion> targetVersions = Arrays.asList(remoteOf("1.0.0"), remoteOf("2.0.0"));
+        List<Broker> brokers = Arrays.asList(new Broker.ByArtifact(lombok), new Broker.ByArtifact(slf4j));
+        int sourceVersionCount = 3;
+
+        for (int sourceVersion = 0; sourceVersion < sourceVersionCount; sourceVersion++) {
+            for (URI targetUri : targetUris) {
+                for (RefVersion targetVersion : targetVersions) {
+                    Path project = Paths.get(targetUri.getPath(), targetVersion.getVersion().toString());
+                    for (Broker broker : brokers) {
+                        Version first = x.getVersion(broker, maven, project, targetUri, targetVersion);
+                        assertThat(first)
+                                .describedAs("cached version of the first call")
+                                .isEqualTo(maven.getFirstVersion(project, broker));
+                    }
+                }
+            }
+        }
+
+        assertThat(maven.getCalls())
+                .describedAs("once per target, target version and broker across source versions")
+                .hasSize(targetUris.size() * targetVersions.size() * brokers.size())
+                .doesNotHaveDuplicates();
+    }
+
+    private final Artifact lombok = Artifact.parse("org.projectlombok:lombok:::1.0.0");
+    private final Artifact slf4j = Artifact.parse("org.slf4j:slf4j-api:::1.0.0");
+
+    @lombok.Getter
+    private static final class CountingMaven implements Maven {
+
+        private final List<String> calls = new ArrayList<>();
+
+        Version getFirstVersion(Path project, Broker broker) {
+            return Version.parse("1." + calls.indexOf(toCall(project, ((Broker.ByArtifact) broker).getArtifact())));
+        }
+
+        private static String toCall(Path project, Artifact artifact) {
+            return project + "|" + artifact;
+        }
+
+        @Override
+        public void clean(@NonNull Path project) {
+        }
+
+        @Override
+        public String verify(@NonNull Path project) {
+            return null;
+        }
+
+        @Override
+        public @NonNull Version getProjectVersion(@NonNull Path project) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Version getArtifactVersion(@NonNull Path project, @NonNull Artifact artifact) {
+            calls.add(toCall(project, artifact));
+            return Version.parse("1." + (calls.size() - 1));
+        }
+
+        @Override
+        public void setArtifactVersion(@NonNull Path project, @NonNull Artifact artifact, @NonNull Version version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Version getArtifactLatestRelease(@NonNull Artifact artifact) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
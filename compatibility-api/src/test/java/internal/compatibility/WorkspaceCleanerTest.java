@@ -0,0 +1,68 @@
+package internal.compatibility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkspaceCleanerTest {
+
+    @Test
+    void testDelete(@TempDir Path tmp) throws IOException {
+        WorkspaceCleaner x = WorkspaceCleaner.open(tmp);
+
+        Path dir = tmp.resolve("project");
+        for (int i = 0; i < 10; i++) {
+            write(dir.resolve("module" + i).resolve("target").resolve("file" + i + ".txt"), "hello");
+        }
+        x.delete(dir);
+        assertThat(dir).doesNotExist();
+
+        Path file = write(tmp.resolve("file.txt"), "hello");
+        x.delete(file);
+        assertThat(file).doesNotExist();
+
+        WorkspaceCleaner.drain();
+        assertThat(tmp.resolve(".compatibility-trash")).isEmptyDirectory();
+
+        x.close();
+        assertThat(tmp)
+                .describedAs("empty trash removed on close")
+                .isEmptyDirectory();
+    }
+
+    @Test
+    void testCloseWithoutWaiting(@TempDir Path tmp) throws IOException {
+        WorkspaceCleaner x = WorkspaceCleaner.open(tmp);
+
+        Path dir = write(tmp.resolve("project").resolve("file.txt"), "hello").getParent();
+        x.delete(dir);
+        x.close();
+        assertThat(dir).doesNotExist();
+
+        WorkspaceCleaner.drain();
+        assertThat(tmp.resolve(".compatibility-trash"))
+                .describedAs("removed on close if the deletion was already done")
+                .satisfiesAnyOf(trash -> assertThat(trash).doesNotExist(), trash -> assertThat(trash).isEmptyDirectory());
+    }
+
+    @Test
+    void testSweep(@TempDir Path tmp) throws IOException {
+        Path leftover = write(tmp.resolve(".compatibility-trash").resolve("crashed").resolve("file.txt"), "hello");
+
+        WorkspaceCleaner.open(tmp);
+        WorkspaceCleaner.drain();
+        assertThat(leftover.getParent()).doesNotExist();
+        assertThat(tmp.resolve(".compatibility-trash")).isEmptyDirectory();
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+package internal.compatibility;
+
+import nbbrd.io.sys.OS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkspaceMaterializerTest {
+
+    @Test
+    void testMaterialize(@TempDir Path tmp) throws IOException {
+        Path source = tmp.resolve("source");
+        write(source.resolve("pom.xml"), "<project/>");
+        write(source.resolve(".gitignore"), "*.log\n/build/\n!keep.log\n");
+        write(source.resolve("src").resolve("Hello.java"), "class Hello {}");
+        write(source.resolve("src").resolve("debug.log"), "debug");
+        write(source.resolve("src").resolve("keep.log"), "keep");
+        write(source.resolve("build").resolve("output.txt"), "output");
+        write(source.resolve("target").resolve("classes").resolve("Hello.class"), "bytecode");
+        write(source.resolve("module").resolve("pom.xml"), "<project/>");
+        write(source.resolve("module").resolve("target").resolve("module.jar"), "jar");
+        write(source.resolve("module").resolve(".gitignore"), "generated/\n");
+        write(source.resolve("module").resolve("generated").resolve("File.java"), "class File {}");
+        write(source.resolve(".git").resolve("objects").resolve("ab").resolve("cdef"), "object");
+        write(source.resolve(".git").resolve("HEAD"), "ref: refs/heads/main");
+
+        Path target = tmp.resolve("target");
+        WorkspaceMaterializer.Stats stats = WorkspaceMaterializer.materialize(source, target);
+
+        assertThat(target.resolve("pom.xml")).hasContent("<project/>");
+        assertThat(target.resolve("src").resolve("Hello.java")).hasContent("class Hello {}");
+        assertThat(target.resolve("src").resolve("keep.log")).hasContent("keep");
+        assertThat(target.resolve("module").resolve("pom.xml")).exists();
+        assertThat(target.resolve(".git").resolve("objects").resolve("ab").resolve("cdef")).hasContent("object");
+        assertThat(target.resolve(".git").resolve("HEAD")).exists();
+
+        assertThat(target.resolve("src").resolve("debug.log")).doesNotExist();
+        assertThat(target.resolve("build")).doesNotExist();
+        assertThat(target.resolve("target")).doesNotExist();
+        assertThat(target.resolve("module").resolve("target")).doesNotExist();
+        assertThat(target.resolve("module").resolve("generated")).doesNotExist();
+
+        assertThat(stats.getExcludedBytes())
+                .isEqualTo("debug".length() + "output".length() + "bytecode".length() + "jar".length() + "class File {}".length());
+        assertThat(stats.getCopiedBytes() + stats.getLinkedBytes() + stats.getClonedBytes())
+                .isEqualTo(getSize(target));
+        assertThat(stats.getAvoidedBytes())
+                .isEqualTo(stats.getExcludedBytes() + stats.getLinkedBytes() + stats.getClonedBytes());
+    }
+
+    @Test
+    void testGetCloneCommand(@TempDir Path tmp) {
+        Path source = tmp.resolve("source");
+        Path target = tmp.resolve("target");
+
+        assertThat(WorkspaceMaterializer.getCloneCommand(OS.Name.LINUX, source.resolve("."), target))
+                .containsExactly("cp", "-R", "--reflink=always", source + File.separator + ".", target.toString());
+        assertThat(WorkspaceMaterializer.getCloneCommand(OS.Name.MACOS, source.resolve("."), target))
+                .containsExactly("cp", "-c", "-R", source + File.separator + ".", target.toString());
+        assertThat(WorkspaceMaterializer.getCloneCommand(OS.Name.WINDOWS, source, target))
+                .isNull();
+    }
+
+    @Test
+    void testIgnoreRules(@TempDir Path base) throws IOException {
+        Path file = base.resolve(".gitignore");
+        Files.write(file, Arrays.asList(
+                "# comment",
+                "",
+                "*.class",
+                "!Keep.class",
+                "/root.txt",
+                "docs/*.md",
+                "**/logs/",
+                "file[0-9].txt"
+        ), UTF_8);
+        WorkspaceMaterializer.IgnoreRules x = WorkspaceMaterializer.IgnoreRules.load(base, file);
+
+        assertThat(x.isIgnored(base.resolve("a").resolve("Hello.class"), false)).isTrue();
+        assertThat(x.isIgnored(base.resolve("a").resolve("Keep.class"), false)).isFalse();
+        assertThat(x.isIgnored(base.resolve("root.txt"), false)).isTrue();
+        assertThat(x.isIgnored(base.resolve("a").resolve("root.txt"), false)).isNull();
+        assertThat(x.isIgnored(base.resolve("docs").resolve("README.md"), false)).isTrue();
+        assertThat(x.isIgnored(base.resolve("docs").resolve("a").resolve("README.md"), false)).isNull();
+        assertThat(x.isIgnored(base.resolve("a").resolve("logs"), true)).isTrue();
+        assertThat(x.isIgnored(base.resolve("logs"), true)).isTrue();
+        assertThat(x.isIgnored(base.resolve("logs"), false)).isNull();
+        assertThat(x.isIgnored(base.resolve("file1.txt"), false)).isTrue();
+        assertThat(x.isIgnored(base.resolve("fileA.txt"), false)).isNull();
+    }
+
+    private static long getSize(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package internal.compatibility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class WorkspacePoolTest {
+
+    @Test
+    void testAcquire(@TempDir Path tmp) throws IOException {
+        WorkspacePool x = WorkspacePool.open(tmp.resolve("pool"), Long.MAX_VALUE);
+        URI uri = URI.create("https://example.com/project.git");
+
+        Path workspace;
+        try (WorkspacePool.Lease lease = x.acquire(uri)) {
+            assertThat(lease).isNotNull();
+            assertThat(lease.isReady()).isFalse();
+            assertThat(lease.getDirectory()).isEmptyDirectory();
+            assertThat(x.acquire(uri))
+                    .describedAs("workspace already leased")
+                    .isNull();
+
+            workspace = lease.getDirectory();
+            Files.write(workspace.resolve("pom.xml"), new byte[0]);
+            Files.write(Files.createDirectory(workspace.resolve("target")).resolve("output"), new byte[0]);
+            lease.setReady();
+        }
+
+        try (WorkspacePool.Lease lease = x.acquire(uri)) {
+            assertThat(lease).isNotNull();
+            assertThat(lease.isReady()).isTrue();
+            assertThat(lease.getDirectory()).isEqualTo(workspace);
+            assertThat(workspace.resolve("pom.xml")).exists();
+            assertThat(workspace.resolve("target"))
+                    .describedAs("build output removed on reuse")
+                    .doesNotExist();
+
+            lease.reset();
+            assertThat(lease.isReady()).isFalse();
+            assertThat(workspace).isEmptyDirectory();
+        }
+
+        try (WorkspacePool.Lease lease = x.acquire(URI.create("https://example.com/other.git"))) {
+            assertThat(lease).isNotNull();
+            assertThat(lease.getDirectory()).isNotEqualTo(workspace);
+        }
+    }
+
+    @Test
+    void testEviction(@TempDir Path tmp) throws IOException {
+        Path dir = tmp.resolve("pool");
+        WorkspacePool x = WorkspacePool.open(dir, 1);
+
+        try (WorkspacePool.Lease lease = x.acquire(URI.create("https://example.com/first.git"))) {
+            Files.write(lease.getDirectory().resolve("data"), new byte[10]);
+            lease.setReady();
+        }
+        try (WorkspacePool.Lease lease = x.acquire(URI.create("https://example.com/second.git"))) {
+            Files.write(lease.getDirectory().resolve("data"), new byte[10]);
+            lease.setReady();
+        }
+
+        assertThat(countWorkspaces(dir))
+                .describedAs("least recently used workspace evicted")
+                .isEqualTo(1);
+        try (WorkspacePool.Lease lease = x.acquire(URI.create("https://example.com/second.git"))) {
+            assertThat(lease.isReady()).isTrue();
+        }
+
+        assertThatIllegalArgumentException().isThrownBy(() -> WorkspacePool.open(dir, 0));
+    }
+
+    @Test
+    void testLinkBuildOutputs(@TempDir Path tmp) throws IOException {
+        Path project = Files.createDirectory(tmp.resolve("project"));
+        Files.write(project.resolve("pom.xml"), new byte[0]);
+        Files.write(Files.createDirectory(project.resolve("module")).resolve("pom.xml"), new byte[0]);
+        Path outputs = Files.createDirectory(tmp.resolve("outputs"));
+
+        WorkspacePool.linkBuildOutputs(project, outputs);
+        assertThat(project.resolve("target")).isSymbolicLink().isDirectory();
+        assertThat(project.resolve("module").resolve("target")).isSymbolicLink().isDirectory();
+        assertThat(Files.readSymbolicLink(project.resolve("target"))).startsWith(outputs);
+
+        Path link = Files.readSymbolicLink(project.resolve("target"));
+        WorkspacePool.linkBuildOutputs(project, outputs);
+        assertThat(Files.readSymbolicLink(project.resolve("target")))
+                .describedAs("existing links kept")
+                .isEqualTo(link);
+    }
+
+    private static long countWorkspaces(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isDirectory).count();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package internal.compatibility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkspaceSnapshotTest {
+
+    @Test
+    void testRestore(@TempDir Path tmp) throws IOException {
+        Path project = Files.createDirectory(tmp.resolve("project"));
+        WorkspaceCleaner cleaner = WorkspaceCleaner.open(tmp);
+        Path pom = write(project.resolve("pom.xml"), "<project/>");
+        Path modulePom = write(project.resolve("module").resolve("pom.xml"), "<project><version>1.0</version></project>");
+        Path source = write(project.resolve("module").resolve("src").resolve("Hello.java"), "class Hello {}");
+        Path gitFile = write(project.resolve(".git").resolve("index"), "index");
+
+        WorkspaceSnapshot x = WorkspaceSnapshot.of(project);
+
+        write(modulePom, "<project><version>2.0</version></project>");
+        Files.delete(pom);
+        write(project.resolve("module").resolve("pom.xml.versionsBackup"), "backup");
+        write(project.resolve("module").resolve("target").resolve("classes").resolve("Hello.class"), "bytecode");
+        write(gitFile, "modified");
+
+        assertThat(x.restore(cleaner)).isTrue();
+        assertThat(pom).hasContent("<project/>");
+        assertThat(modulePom).hasContent("<project><version>1.0</version></project>");
+        assertThat(source).hasContent("class Hello {}");
+        assertThat(project.resolve("module").resolve("pom.xml.versionsBackup")).doesNotExist();
+        assertThat(project.resolve("module").resolve("target")).doesNotExist();
+        assertThat(gitFile).hasContent("modified");
+        WorkspaceCleaner.drain();
+    }
+
+    @Test
+    void testRestoreWithModifiedFile(@TempDir Path tmp) throws IOException {
+        Path project = Files.createDirectory(tmp.resolve("project"));
+        WorkspaceCleaner cleaner = WorkspaceCleaner.open(tmp);
+        write(project.resolve("pom.xml"), "<project/>");
+        Path source = write(project.resolve("Hello.java"), "class Hello {}");
+
+        WorkspaceSnapshot x = WorkspaceSnapshot.of(project);
+
+        write(source, "class Hello { int modified; }");
+        assertThat(x.restore(cleaner)).isFalse();
+
+        Files.delete(source);
+        assertThat(x.restore(cleaner)).isFalse();
+    }
+
+    @Test
+    void testRestoreWithRewrittenFile(@TempDir Path tmp) throws IOException {
+        Path project = Files.createDirectory(tmp.resolve("project"));
+        WorkspaceCleaner cleaner = WorkspaceCleaner.open(tmp);
+        write(project.resolve("pom.xml"), "<project/>");
+        Path source = write(project.resolve("Hello.java"), "class Hello {}");
+
+        WorkspaceSnapshot x = WorkspaceSnapshot.of(project);
+
+        // same content with a new last modified time, as after a git restore or a generated resource
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 60_000));
+        assertThat(x.restore(cleaner)).isTrue();
+
+        // same size with a new content
+        write(source, "class Hallo {}");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 120_000));
+        assertThat(x.restore(cleaner)).isFalse();
+    }
+
+    @Test
+    void testAccept(@TempDir Path tmp) throws IOException {
+        Path project = Files.createDirectory(tmp.resolve("project"));
+        WorkspaceCleaner cleaner = WorkspaceCleaner.open(tmp);
+        write(project.resolve("pom.xml"), "<project/>");
+        Path source = write(project.resolve("Hello.java"), "class Hello {}");
+        Path other = write(project.resolve("Other.java"), "class Other {}");
+
+        WorkspaceSnapshot x = WorkspaceSnapshot.of(project);
+
+        write(source, "class Hello { int modified; }");
+        Files.delete(other);
+        assertThat(x.restore(cleaner)).isFalse();
+
+        x.accept();
+        assertThat(x.restore(cleaner)).isTrue();
+        assertThat(source).hasContent("class Hello { int modified; }");
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package internal.compatibility.spi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.System.lineSeparator;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nbbrd.compatibility.spi.Builder.IGNORE_EVENT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.InstanceOfAssertFactories.STRING;
+
+class BuildLogTest {
+
+    @Test
+    void testGetMessage(@TempDir Path tmp) throws IOException {
+        Path file = tmp.resolve("check.log");
+
+        try (BuildLog x = BuildLog.open(file, 2, 10, IGNORE_EVENT)) {
+            assertThat(x.getMessage()).isNull();
+
+            x.accept("a");
+            x.accept("b");
+            assertThat(x.getMessage())
+                    .describedAs("output kept as is when nothing is omitted")
+                    .isEqualTo(String.join(lineSeparator(), "a", "b"));
+
+            x.accept("[ERROR] c");
+            x.accept("d");
+            x.accept("e");
+            x.accept("[ERROR] f");
+            assertThat(x.getMessage())
+                    .isEqualTo(String.join(lineSeparator(), "[... 2 lines omitted]", "[ERROR] c", "[... 1 line omitted]", "e", "[ERROR] f", "Full log: " + file));
+        }
+
+        assertThat(file)
+                .content(UTF_8)
+                .isEqualTo(String.join(lineSeparator(), "a", "b", "[ERROR] c", "d", "e", "[ERROR] f", ""));
+    }
+
+    @Test
+    void testBounds() throws IOException {
+        try (BuildLog x = BuildLog.open(null, 0, 1, IGNORE_EVENT)) {
+            x.accept("[ERROR] a");
+            x.accept("[ERROR] b");
+            x.accept("c");
+            assertThat(x.getMessage())
+                    .describedAs("no file to reference")
+                    .isEqualTo(String.join(lineSeparator(), "[ERROR] a", "[... 2 lines omitted]"));
+        }
+
+        assertThatIllegalArgumentException().isThrownBy(() -> BuildLog.open(null, -1, 0, IGNORE_EVENT));
+    }
+
+    @Test
+    void testFailingFile(@TempDir Path tmp) {
+        Path file = tmp.resolve("missing").resolve("check.log");
+        List<String> events = new ArrayList<>();
+
+        try (BuildLog x = BuildLog.open(file, 1, 10, events::add)) {
+            x.accept("a");
+            x.accept("[ERROR] b");
+            x.accept("c");
+            assertThat(x.getMessage())
+                    .describedAs("output kept without reference to the file")
+                    .isEqualTo(String.join(lineSeparator(), "[... 1 line omitted]", "[ERROR] b", "c"));
+        }
+
+        assertThat(events)
+                .singleElement(STRING)
+                .startsWith("Cannot write build log " + file);
+        assertThat(file).doesNotExist();
+    }
+}
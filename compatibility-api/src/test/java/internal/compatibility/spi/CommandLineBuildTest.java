@@ -2,22 +2,30 @@ package internal.compatibility.spi;
 
 import internal.compatibility.Files2;
 import nbbrd.compatibility.Artifact;
+import nbbrd.compatibility.Filter;
 import nbbrd.compatibility.Ref;
 import nbbrd.compatibility.Version;
+import nbbrd.compatibility.spi.Git;
+import nbbrd.compatibility.spi.Maven;
 import nbbrd.io.text.TextParser;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.semver4j.Semver;
+import tests.compatibility.Examples;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static java.lang.System.lineSeparator;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -25,6 +33,7 @@ import static java.nio.file.Files.createDirectory;
 import static java.nio.file.StandardOpenOption.APPEND;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static nbbrd.compatibility.spi.Builder.IGNORE_EVENT;
 import static org.assertj.core.api.Assertions.*;
 import static org.assertj.core.api.InstanceOfAssertFactories.comparable;
@@ -76,6 +85,8 @@ class CommandLineBuildTest {
         Path project = copy(tmp, sourceProject);
         try (CommandLineBuild x = getBuild(IGNORE_EVENT)) {
             assertThat(x.verify(project)).isNull();
+            assertThat(x.verify(project, Maven.VerifyOptions.builder().verification(Maven.Verification.COMPILE).build())).isNull();
+            assertThat(x.verify(project, Maven.VerifyOptions.builder().verification(Maven.Verification.TEST).threads("2").build())).isNull();
 
             Files.delete(project.resolve("pom.xml"));
             assertThat(x.verify(project)).contains("Non-readable POM");
@@ -192,6 +203,81 @@ class CommandLineBuildTest {
         }
     }
 
+    @Test
+    void getCommitId(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (CommandLineBuild x = getBuild(IGNORE_EVENT)) {
+            assertThat(x.getCommitId(project, Ref.ofVersion("2.4.0")))
+                    .matches("[0-9a-f]{40}")
+                    .isNotEqualTo(x.getCommitId(project, Ref.ofVersion("3.0.0")));
+            assertThatIOException()
+                    .isThrownBy(() -> x.getCommitId(project, Ref.ofVersion("9.9.9")));
+        }
+    }
+
+    @Test
+    void getTagsWithFilter(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (CommandLineBuild x = getBuild(IGNORE_EVENT)) {
+            for (Filter filter : new Filter[]{
+                    Filter.DEFAULT,
+                    Filter.builder().limit(0).build(),
+                    Filter.builder().limit(2).build(),
+                    Filter.builder().ref("2.").build(),
+                    Filter.builder().ref("2.").limit(1).build(),
+                    Filter.builder().ref("v*").build(),
+                    Filter.builder().from(LocalDate.now().plusDays(1)).limit(1).build()
+            }) {
+                assertThat(x.getTags(project, filter))
+                        .describedAs(filter.toString())
+                        .isEqualTo(filter.apply(x.getTags(project)));
+            }
+        }
+    }
+
+    @Test
+    void testGetTagPatterns() {
+        assertThat(CommandLineBuild.getTagPatterns(null))
+                .containsExactly("refs/tags");
+        assertThat(CommandLineBuild.getTagPatterns("1.0"))
+                .containsExactly("refs/tags/*1.0*", "refs/tags/**/*1.0*", "refs/tags/**/*1.0*/**");
+        assertThat(CommandLineBuild.getTagPatterns("release/1")).isNull();
+        assertThat(CommandLineBuild.getTagPatterns("v*")).isNull();
+    }
+
+    @Test
+    void getRemoteTags(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (CommandLineBuild x = getBuild(IGNORE_EVENT)) {
+            assertThat(x.getRemoteTags(project.toUri()))
+                    .containsExactlyInAnyOrder(
+                            Ref.ofVersion("2.3.4"),
+                            Ref.ofVersion("2.4.0"),
+                            Ref.ofVersion("3.0.0")
+                    );
+        }
+    }
+
+    @Test
+    void readFile(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (CommandLineBuild x = getBuild(IGNORE_EVENT)) {
+            assertThat(x.readFile(project, Ref.ofVersion("2.4.0"), "pom.xml"))
+                    .asString(UTF_8)
+                    .contains("<version>2.4.0</version>");
+            assertThat(x.readFile(project, Ref.ofVersion("2.4.0"), "missing.xml"))
+                    .isNull();
+            assertThat(x.readFile(project, Ref.ofVersion("9.9.9"), "pom.xml"))
+                    .isNull();
+            assertThat(x.readFile(project, Ref.ofVersion("3.0.0"), "pom.xml"))
+                    .isEqualTo(Files.readAllBytes(project.resolve("pom.xml")));
+            assertThat(project.resolve("pom.xml"))
+                    .content().contains("<version>3.0.0</version>");
+            assertThatIOException()
+                    .isThrownBy(() -> x.readFile(createDirectory(tmp.resolve("not-a-repository")), Ref.ofVersion("2.4.0"), "pom.xml"));
+        }
+    }
+
     @Test
     void getTags(@TempDir Path tmp) throws IOException {
         Path project = copy(tmp, sourceProject);
@@ -217,6 +303,63 @@ class CommandLineBuildTest {
         assertThat(clonedProject.resolve("pom.xml")).exists();
     }
 
+    @ParameterizedTest
+    @EnumSource(Git.CloneStrategy.class)
+    void cloneWithStrategy(Git.CloneStrategy strategy, @TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        Path clonedProject = tmp.resolve("clonedProject");
+        try (CommandLineBuild x = getBuild(IGNORE_EVENT)) {
+            x.clone(project.toUri(), clonedProject, strategy, Filter.DEFAULT);
+            assertThat(x.getTags(clonedProject))
+                    .map(Ref::withoutDate)
+                    .containsExactly(
+                            Ref.ofVersion("2.3.4"),
+                            Ref.ofVersion("2.4.0"),
+                            Ref.ofVersion("3.0.0")
+                    );
+            assertThat(x.readFile(clonedProject, Ref.ofVersion("2.4.0"), "pom.xml"))
+                    .asString(UTF_8)
+                    .contains("<version>2.4.0</version>");
+            x.checkoutTag(clonedProject, Ref.ofVersion("2.3.4"));
+            assertThat(clonedProject.resolve("pom.xml"))
+                    .content().contains("<version>2.3.4</version>");
+        }
+    }
+
+    @Test
+    void cloneShallowWithFilter(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        Path clonedProject = tmp.resolve("clonedProject");
+        try (CommandLineBuild x = getBuild(IGNORE_EVENT)) {
+            x.clone(project.toUri(), clonedProject, Git.CloneStrategy.SHALLOW, Filter.builder().ref("v2.").limit(1).build());
+            assertThat(x.getTags(clonedProject))
+                    .map(Ref::withoutDate)
+                    .containsExactly(Ref.ofVersion("2.4.0"));
+            x.checkoutTag(clonedProject, Ref.ofVersion("2.4.0"));
+            assertThat(clonedProject.resolve("pom.xml"))
+                    .content().contains("<version>2.4.0</version>");
+        }
+    }
+
+    @Test
+    void mirror(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        Path mirror = tmp.resolve("mirror.git");
+        Path clonedProject = tmp.resolve("clonedProject");
+        try (CommandLineBuild x = getBuild(IGNORE_EVENT)) {
+            x.mirror(project.toUri(), mirror);
+            assertThat(x.getTags(mirror)).hasSize(3);
+
+            Files.write(project.resolve("README.md"), "hello".getBytes(UTF_8));
+            Examples.commitAndTag(project, "4.0.0");
+            x.mirror(project.toUri(), mirror);
+            assertThat(x.getTags(mirror)).hasSize(4);
+
+            x.clone(mirror.toUri(), clonedProject);
+            assertThat(x.getTags(clonedProject)).hasSize(4);
+        }
+    }
+
     @Test
     void install(@TempDir Path tmp) {
     }
@@ -236,6 +379,59 @@ class CommandLineBuildTest {
                 );
     }
 
+    @Test
+    void testParseMavenVersion() {
+        assertThat(CommandLineBuild.parseMavenVersion(Stream.of("3.9.11")))
+                .hasToString("3.9.11");
+
+        assertThat(CommandLineBuild.parseMavenVersion(Stream.of(
+                "Apache Maven Daemon (mvnd) 1.0.2 linux-amd64 native client (0123456789abcdef)",
+                "Terminal: org.jline.terminal.impl.PosixSysTerminal with pty org.jline.terminal.impl.exec.ExecPty",
+                "Apache Maven 3.9.9 (8e8579a9e76f7d015ee5ec7bfcdc97d260186937)",
+                "Java version: 21.0.4, vendor: Eclipse Adoptium")))
+                .hasToString("3.9.9");
+
+        assertThat(CommandLineBuild.parseMavenVersion(Stream.of("Apache Maven 4.0.0-rc-2 (0123456789abcdef)")))
+                .hasToString("4.0.0-rc-2");
+
+        assertThat(CommandLineBuild.parseMavenVersion(Stream.of("", "Java version: 21.0.4")))
+                .isNull();
+    }
+
+    @Test
+    void testParseRemoteTags() {
+        assertThat(CommandLineBuild.parseRemoteTags(Stream.of(
+                "0123456789abcdef0123456789abcdef01234567\trefs/tags/v1.0.0",
+                "0123456789abcdef0123456789abcdef01234567\trefs/tags/release/2.0",
+                "0123456789abcdef0123456789abcdef01234567\trefs/heads/main",
+                "")))
+                .containsExactly(Ref.ofVersion("1.0.0"), Ref.of(null, "release/2.0"));
+    }
+
+    @Test
+    void testSelectRemoteTags() {
+        List<Ref> tags = Stream.of("1.0.0", "2.0.0", "2.1.0", "2.10.0", "3.0.0").map(Ref::ofVersion).collect(toList());
+
+        assertThat(CommandLineBuild.selectRemoteTags(tags, Filter.DEFAULT))
+                .isEqualTo(tags);
+
+        assertThat(CommandLineBuild.selectRemoteTags(tags, Filter.builder().ref("v2.").build()))
+                .containsExactly(Ref.ofVersion("2.0.0"), Ref.ofVersion("2.1.0"), Ref.ofVersion("2.10.0"));
+
+        assertThat(CommandLineBuild.selectRemoteTags(tags, Filter.builder().ref("v2.").limit(2).build()))
+                .containsExactly(Ref.ofVersion("2.1.0"), Ref.ofVersion("2.10.0"));
+
+        assertThat(CommandLineBuild.selectRemoteTags(tags, Filter.builder().limit(0).build()))
+                .isEmpty();
+
+        assertThat(CommandLineBuild.selectRemoteTags(tags, Filter.builder().from(LocalDate.of(2020, 1, 1)).limit(1).build()))
+                .describedAs("limit applied after fetching when dates are bounded")
+                .isEqualTo(tags);
+
+        assertThat(CommandLineBuild.selectRemoteTags(tags, Filter.builder().ref("v2.").to(LocalDate.of(2020, 1, 1)).limit(1).build()))
+                .containsExactly(Ref.ofVersion("2.0.0"), Ref.ofVersion("2.1.0"), Ref.ofVersion("2.10.0"));
+    }
+
     private static Path copy(Path tmp, Path project) throws IOException {
         Path target = tmp.resolve("project");
         Files2.copyRecursively(project, target);
@@ -0,0 +1,42 @@
+package internal.compatibility.spi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static tests.compatibility.spi.BuilderAssert.assertBuilderCompliance;
+
+class EmbeddedBuilderTest {
+
+    @Test
+    void testCompliance() {
+        assertBuilderCompliance(new EmbeddedBuilder());
+    }
+
+    @Test
+    void testToArguments() {
+        assertThat(EmbeddedMaven.toArguments(MvnCommand
+                .builder()
+                .quiet(true)
+                .goal("verify")
+                .property("skipTests", null)
+                .property("depVersion", "1.2.3")
+                .build()
+                .toProcessCommand()))
+                .containsExactly("-q", "-ff", "verify", "-D", "skipTests", "-D", "depVersion=1.2.3");
+
+        assertThat(EmbeddedMaven.toArguments(Arrays.asList("mvn", "\"")))
+                .containsExactly("\"");
+    }
+
+    @Test
+    void testOpen(@TempDir Path tmp) {
+        assertThatIOException()
+                .isThrownBy(() -> EmbeddedMaven.open(tmp))
+                .withMessageContaining("Invalid Maven home");
+    }
+}
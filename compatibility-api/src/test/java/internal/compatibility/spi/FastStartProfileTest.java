@@ -0,0 +1,54 @@
+package internal.compatibility.spi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static nbbrd.compatibility.spi.Builder.IGNORE_EVENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FastStartProfileTest {
+
+    @Test
+    void testGetOptions(@TempDir Path tmp) throws IOException {
+        FastStartProfile x = FastStartProfile.of(propertiesOf(tmp), tmp.resolve("mvn"), IGNORE_EVENT);
+
+        assertThat(x.getOptions(false))
+                .contains("-XX:TieredStopAtLevel=1")
+                .noneMatch(option -> option.startsWith("-XX:ArchiveClassesAtExit="))
+                .noneMatch(option -> option.startsWith("-XX:SharedArchiveFile="));
+
+        assertThat(x.getOptions(true))
+                .contains("-XX:TieredStopAtLevel=1", "-Xshare:auto")
+                .anyMatch(option -> option.startsWith("-XX:ArchiveClassesAtExit=" + tmp))
+                .noneMatch(option -> option.startsWith("-XX:SharedArchiveFile="));
+
+        String dump = x.getOptions(true).get(x.getOptions(true).size() - 1);
+        Files.createFile(tmp.resolve(dump.substring(dump.indexOf('=') + 1)));
+
+        assertThat(x.getOptions(false))
+                .contains("-XX:+AutoCreateSharedArchive")
+                .anyMatch(option -> option.startsWith("-XX:SharedArchiveFile=" + tmp))
+                .noneMatch(option -> option.startsWith("-XX:ArchiveClassesAtExit="));
+    }
+
+    @Test
+    void testPathWithSpace(@TempDir Path tmp) throws IOException {
+        Path dir = Files.createDirectory(tmp.resolve("with space"));
+        FastStartProfile x = FastStartProfile.of(propertiesOf(dir), tmp.resolve("mvn"), IGNORE_EVENT);
+
+        assertThat(x.getOptions(true))
+                .contains("-XX:TieredStopAtLevel=1")
+                .noneMatch(option -> option.startsWith("-XX:ArchiveClassesAtExit="));
+    }
+
+    private static Properties propertiesOf(Path tmpDir) {
+        Properties result = new Properties();
+        result.setProperty("java.io.tmpdir", tmpDir.toString());
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package internal.compatibility.spi;
+
+import org.junit.jupiter.api.Test;
+
+import static tests.compatibility.spi.BuilderAssert.assertBuilderCompliance;
+
+class JGitBuilderTest {
+
+    @Test
+    void testCompliance() {
+        assertBuilderCompliance(new JGitBuilder());
+    }
+}
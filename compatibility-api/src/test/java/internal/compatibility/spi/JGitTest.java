@@ -0,0 +1,148 @@
+package internal.compatibility.spi;
+
+import internal.compatibility.Files2;
+import nbbrd.compatibility.Filter;
+import nbbrd.compatibility.Ref;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import tests.compatibility.Examples;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static nbbrd.compatibility.spi.Builder.IGNORE_EVENT;
+import static org.assertj.core.api.Assertions.*;
+import static tests.compatibility.Examples.generateProject;
+import static tests.compatibility.Examples.resolveResource;
+
+@Execution(ExecutionMode.CONCURRENT)
+class JGitTest {
+
+    private static Path sourceProject;
+
+    @BeforeAll
+    static void beforeAll(@TempDir Path tmp) throws IOException {
+        sourceProject = generateProject(resolveResource("/source-project"), tmp.resolve("source-project"), JGitTest::doNothing);
+    }
+
+    @Test
+    void getTags(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (JGit x = new JGit(IGNORE_EVENT); CommandLineBuild reference = CommandLineBuild.builder().build()) {
+            assertThat(x.getTags(project))
+                    .isEqualTo(reference.getTags(project));
+            for (Filter filter : new Filter[]{
+                    Filter.DEFAULT,
+                    Filter.builder().limit(1).build(),
+                    Filter.builder().ref("2.").build(),
+                    Filter.builder().from(LocalDate.now().plusDays(1)).build()
+            }) {
+                assertThat(x.getTags(project, filter))
+                        .describedAs(filter.toString())
+                        .isEqualTo(reference.getTags(project, filter));
+            }
+        }
+    }
+
+    @Test
+    void getCommitId(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (JGit x = new JGit(IGNORE_EVENT); CommandLineBuild reference = CommandLineBuild.builder().build()) {
+            assertThat(x.getCommitId(project, Ref.ofVersion("2.4.0")))
+                    .isEqualTo(reference.getCommitId(project, Ref.ofVersion("2.4.0")));
+            assertThatIOException()
+                    .isThrownBy(() -> x.getCommitId(project, Ref.ofVersion("9.9.9")));
+        }
+    }
+
+    @Test
+    void getRemoteTags(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (JGit x = new JGit(IGNORE_EVENT)) {
+            assertThat(x.getRemoteTags(project.toUri()))
+                    .containsExactlyInAnyOrder(
+                            Ref.ofVersion("2.3.4"),
+                            Ref.ofVersion("2.4.0"),
+                            Ref.ofVersion("3.0.0")
+                    );
+        }
+    }
+
+    @Test
+    void readFile(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (JGit x = new JGit(IGNORE_EVENT)) {
+            assertThat(x.readFile(project, Ref.ofVersion("2.4.0"), "pom.xml"))
+                    .asString(UTF_8)
+                    .contains("<version>2.4.0</version>");
+            assertThat(x.readFile(project, Ref.ofVersion("2.4.0"), "missing.xml"))
+                    .isNull();
+            assertThat(x.readFile(project, Ref.ofVersion("9.9.9"), "pom.xml"))
+                    .isNull();
+        }
+    }
+
+    @Test
+    void checkoutTagAndRestore(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        Path pom = project.resolve("pom.xml");
+        try (JGit x = new JGit(IGNORE_EVENT)) {
+            x.checkoutTag(project, Ref.ofVersion("2.4.0"));
+            assertThat(pom).content().contains("<version>2.4.0</version>");
+
+            byte[] originalContent = Files.readAllBytes(pom);
+            Files.write(pom, "<!-- hello -->".getBytes(UTF_8), APPEND);
+            x.restore(project);
+            assertThat(pom).hasBinaryContent(originalContent);
+        }
+    }
+
+    @Test
+    void cloneAndMirror(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        Path mirror = tmp.resolve("mirror.git");
+        Path clonedProject = tmp.resolve("clonedProject");
+        try (JGit x = new JGit(IGNORE_EVENT)) {
+            x.mirror(project.toUri(), mirror);
+            assertThat(x.getTags(mirror)).hasSize(3);
+
+            Files.write(project.resolve("README.md"), "hello".getBytes(UTF_8));
+            Examples.commitAndTag(project, "4.0.0");
+            x.mirror(project.toUri(), mirror);
+            assertThat(x.getTags(mirror)).hasSize(4);
+
+            x.clone(mirror.toUri(), clonedProject);
+            assertThat(x.getTags(clonedProject)).hasSize(4);
+            assertThat(clonedProject.resolve("pom.xml")).exists();
+        }
+    }
+
+    @Test
+    void release(@TempDir Path tmp) throws IOException {
+        Path project = copy(tmp, sourceProject);
+        try (JGit x = new JGit(IGNORE_EVENT)) {
+            assertThat(x.getTags(project)).hasSize(3);
+            x.release(project);
+            Files2.deleteRecursively(project);
+            assertThat(project).doesNotExist();
+            assertThatIOException()
+                    .isThrownBy(() -> x.getTags(project));
+        }
+    }
+
+    private static Path copy(Path tmp, Path project) throws IOException {
+        Path target = tmp.resolve("project");
+        Files2.copyRecursively(project, target);
+        return target;
+    }
+
+    private static void doNothing(Object ignore) {
+    }
+}
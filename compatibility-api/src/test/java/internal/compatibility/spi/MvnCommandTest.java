@@ -26,5 +26,17 @@ class MvnCommandTest {
                 .property("enforcer.skip", null)
                 .build().toProcessCommand())
                 .containsExactly("hello", "-q", "-U", "-f", "workingDir", "-ff", "clean", "verify", "-D", "\"skipTests\"", "-D", "\"enforcer.skip\"");
+
+        assertThat(MvnCommand
+                .builder()
+                .binary(Paths.get("hello"))
+                .project("a")
+                .project("b/c")
+                .alsoMake(true)
+                .alsoMakeDependents(true)
+                .threads("1C")
+                .goal("verify")
+                .build().toProcessCommand())
+                .containsExactly("hello", "-ff", "-pl", "a,b/c", "-am", "-amd", "-T", "1C", "verify");
     }
 }
\ No newline at end of file
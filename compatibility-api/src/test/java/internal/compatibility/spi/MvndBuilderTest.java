@@ -0,0 +1,61 @@
+package internal.compatibility.spi;
+
+import nbbrd.io.sys.OS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static tests.compatibility.spi.BuilderAssert.assertBuilderCompliance;
+
+class MvndBuilderTest {
+
+    @Test
+    void testCompliance() {
+        assertBuilderCompliance(new MvndBuilder());
+    }
+
+    @Test
+    void testLookupBinary(@TempDir Path tmp) throws IOException {
+        String binaryName = OS.NAME.equals(OS.Name.WINDOWS) ? "mvnd.cmd" : "mvnd";
+
+        Path home = Files.createDirectories(tmp.resolve("home").resolve("bin"));
+        Path onPath = Files.createDirectories(tmp.resolve("path"));
+        Path empty = Files.createDirectories(tmp.resolve("empty"));
+
+        assertThat(MvndBuilder.lookupBinary(null, null)).isNull();
+        assertThat(MvndBuilder.lookupBinary(home.getParent().toString(), empty.toString())).isNull();
+
+        Path pathBinary = Files.createFile(onPath.resolve(binaryName));
+        assertThat(MvndBuilder.lookupBinary(null, empty + File.pathSeparator + onPath)).isEqualTo(pathBinary);
+
+        Path homeBinary = Files.createFile(home.resolve(binaryName));
+        assertThat(MvndBuilder.lookupBinary(home.getParent().toString(), onPath.toString())).isEqualTo(homeBinary);
+    }
+
+    @Test
+    void testDaemonStorage(@TempDir Path tmp) throws IOException {
+        MvndDaemons x = MvndDaemons.open(tmp.resolve("mvnd"), ignore -> {
+        });
+
+        List<String> commands = x.withStorage(Arrays.asList("mvnd", "-q", "verify"));
+        assertThat(commands).hasSize(4).startsWith("mvnd").endsWith("-q", "verify");
+        assertThat(commands.get(1)).startsWith("-Dmvnd.daemonStorage=");
+
+        Path storage = Paths.get(commands.get(1).substring(commands.get(1).indexOf('=') + 1));
+        assertThat(storage).isDirectory();
+
+        assertThatIOException()
+                .describedAs("missing binary")
+                .isThrownBy(x::close);
+        assertThat(storage).doesNotExist();
+    }
+}
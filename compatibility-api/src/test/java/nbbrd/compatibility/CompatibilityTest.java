@@ -1,6 +1,8 @@
 package nbbrd.compatibility;
 
+import internal.compatibility.Journal;
 import internal.compatibility.spi.NoOpBuilder;
+import nbbrd.compatibility.spi.Maven;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import tests.compatibility.MockedBuilder;
@@ -9,6 +11,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -89,6 +93,40 @@ class CompatibilityTest {
         assertThat(workingDir).isEmptyDirectory();
     }
 
+    @Test
+    void checkVerification(@TempDir Path tmp) throws IOException {
+        Path workingDir = Files.createDirectory(tmp.resolve("working-dir"));
+
+        URI localSource = localURI(tmp, "source-project");
+        URI remoteTarget = remoteURI("target-project");
+
+        Job job = Job
+                .builder()
+                .source(Source
+                        .builder()
+                        .uri(localSource)
+                        .versioning("semver")
+                        .binding("x")
+                        .build())
+                .target(Target
+                        .builder()
+                        .uri(remoteTarget)
+                        .build())
+                .build();
+
+        assertThat(mockedCompatibility(workingDir).toBuilder().verification(Maven.Verification.COMPILE).build().check(job).getItems())
+                .extracting(ReportItem::getExitStatus)
+                .containsExactly(BROKEN, BROKEN, VALIDATED);
+
+        assertThat(mockedCompatibility(workingDir).toBuilder().verification(Maven.Verification.TEST).build().check(job).getItems())
+                .extracting(ReportItem::getExitStatus)
+                .containsExactly(BROKEN, BROKEN, TESTED);
+
+        assertThat(mockedCompatibility(workingDir).toBuilder().verification(Maven.Verification.TEST).escalation(true).build().check(job).getItems())
+                .extracting(ReportItem::getExitStatus)
+                .containsExactly(BROKEN, BROKEN, TESTED);
+    }
+
     @Test
     void checkUpstream(@TempDir Path tmp) throws IOException {
         Path workingDir = Files.createDirectory(tmp.resolve("working-dir"));
@@ -195,6 +233,148 @@ class CompatibilityTest {
         assertThat(workingDir).isEmptyDirectory();
     }
 
+    @Test
+    void checkRemoteStreamsInParallel(@TempDir Path tmp) throws IOException {
+        Path workingDir = Files.createDirectory(tmp.resolve("working-dir"));
+        Compatibility sequential = mockedCompatibility(workingDir);
+        Compatibility parallel = sequential.toBuilder().threads(4).build();
+
+        URI remoteSource = remoteURI("source-project");
+        URI remoteTarget = remoteURI("target-project");
+
+        Job job = Job
+                .builder()
+                .source(Source
+                        .builder()
+                        .uri(remoteSource)
+                        .versioning("semver")
+                        .binding("x")
+                        .build())
+                .target(Target
+                        .builder()
+                        .uri(remoteTarget)
+                        .build())
+                .build();
+
+        assertThat(parallel.check(job).getItems())
+                .hasSize(9)
+                .containsExactlyElementsOf(sequential.check(job).getItems());
+
+        assertThat(workingDir).isEmptyDirectory();
+    }
+
+    @Test
+    void checkRemoteStreamsWithCache(@TempDir Path tmp) throws IOException {
+        Path workingDir = Files.createDirectory(tmp.resolve("working-dir"));
+        Path cacheDir = tmp.resolve("cache-dir");
+        List<String> events = new ArrayList<>();
+        Compatibility x = mockedCompatibility(workingDir).toBuilder().cacheDir(cacheDir).onEvent(events::add).build();
+
+        URI remoteSource = remoteURI("source-project");
+        URI remoteTarget = remoteURI("target-project");
+
+        Job job = Job
+                .builder()
+                .source(Source
+                        .builder()
+                        .uri(remoteSource)
+                        .versioning("semver")
+                        .binding("x")
+                        .build())
+                .target(Target
+                        .builder()
+                        .uri(remoteTarget)
+                        .build())
+                .build();
+
+        Report report = x.check(job);
+        assertThat(events).noneMatch(event -> event.endsWith("(cached)"));
+        assertThat(cacheDir).isNotEmptyDirectory();
+
+        events.clear();
+        assertThat(x.check(job)).isEqualTo(report);
+        assertThat(events).filteredOn(event -> event.endsWith("(cached)")).hasSize(9);
+
+        x.clearCache();
+        assertThat(cacheDir).isEmptyDirectory();
+
+        assertThat(workingDir).isEmptyDirectory();
+    }
+
+    @Test
+    void checkRemoteStreamsWithJournal(@TempDir Path tmp) throws IOException {
+        Path workingDir = Files.createDirectory(tmp.resolve("working-dir"));
+        Path journalFile = tmp.resolve("journal.json");
+        List<String> events = new ArrayList<>();
+        Compatibility x = mockedCompatibility(workingDir).toBuilder().journalFile(journalFile).onEvent(events::add).build();
+
+        URI remoteSource = remoteURI("source-project");
+        URI remoteTarget = remoteURI("target-project");
+
+        Job job = Job
+                .builder()
+                .source(Source
+                        .builder()
+                        .uri(remoteSource)
+                        .versioning("semver")
+                        .binding("x")
+                        .build())
+                .target(Target
+                        .builder()
+                        .uri(remoteTarget)
+                        .build())
+                .build();
+
+        Report report = x.check(job);
+        assertThat(journalFile).doesNotExist();
+
+        ReportItem first = report.getItems().get(0);
+        ReportItem last = report.getItems().get(report.getItems().size() - 1);
+        Journal journal = Journal.open(
+                journalFile,
+                x.getParserByFile(Report.class, journalFile).orElseThrow(IOException::new),
+                x.getFormatterByFile(Report.class, journalFile).orElseThrow(IOException::new),
+                false);
+        journal.add(first);
+        journal.add(last);
+
+        events.clear();
+        assertThat(x.toBuilder().resume(true).build().check(job)).isEqualTo(report);
+        assertThat(events).filteredOn(event -> event.endsWith("(resumed)")).hasSize(2);
+        assertThat(journalFile).doesNotExist();
+
+        assertThat(workingDir).isEmptyDirectory();
+    }
+
+    @Test
+    void checkRemoteStreamsWithoutMatchingTag(@TempDir Path tmp) throws IOException {
+        Path workingDir = Files.createDirectory(tmp.resolve("working-dir"));
+        List<String> events = new ArrayList<>();
+        Compatibility x = mockedCompatibility(workingDir).toBuilder().onEvent(events::add).build();
+
+        Job job = Job
+                .builder()
+                .source(Source
+                        .builder()
+                        .uri(remoteURI("source-project"))
+                        .versioning("semver")
+                        .binding("x")
+                        .filter(Filter.builder().ref("9.9.9").build())
+                        .build())
+                .target(Target
+                        .builder()
+                        .uri(remoteURI("target-project"))
+                        .build())
+                .build();
+
+        assertThat(x.check(job).getItems()).isEmpty();
+        assertThat(events)
+                .contains("Skipping remote project " + remoteURI("source-project") + ": no tag matches the filter")
+                .noneMatch(event -> event.startsWith("Initializing remote source"));
+
+        assertThat(workingDir).isEmptyDirectory();
+    }
+
     @Test
     void checkLocalStreams(@TempDir Path tmp) throws IOException {
         Path workingDir = Files.createDirectory(tmp.resolve("working-dir"));
@@ -225,6 +405,13 @@ class CompatibilityTest {
         assertThat(workingDir).isEmptyDirectory();
     }
 
+    @Test
+    void testOfServiceLoaderWithUnknownBuilder() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> Compatibility.ofServiceLoader("stuff"))
+                .withMessageContaining("'stuff'");
+    }
+
     @SuppressWarnings("DataFlowIssue")
     @Test
     void testGetFormatterById() {
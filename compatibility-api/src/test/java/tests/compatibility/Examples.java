@@ -43,6 +43,12 @@ public final class Examples {
         return project;
     }
 
+    public static void commitAndTag(Path project, String version) throws IOException {
+        readToString(UTF_8, "git", "-C", project.toString(), "add", "*");
+        readToString(UTF_8, "git", "-C", project.toString(), "commit", "-am", version);
+        readToString(UTF_8, "git", "-C", project.toString(), "tag", "v" + version);
+    }
+
     private static List<String> getVersions(Path dir) throws IOException {
         try (Stream<Path> files = Files.list(dir)) {
             return files
@@ -18,9 +18,10 @@ import java.io.Writer;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -42,6 +43,9 @@ public class MockedBuilder implements Builder {
     @lombok.Builder.Default
     boolean available = true;
 
+    @lombok.Builder.Default
+    int cost = 0;
+
     @lombok.Singular
     List<MockedProject> projects;
 
@@ -60,6 +64,11 @@ public class MockedBuilder implements Builder {
         return available;
     }
 
+    @Override
+    public int getBuilderCost() {
+        return cost;
+    }
+
     @Override
     public @NonNull Build getBuild(@NonNull Consumer<? super String> onEvent) {
         return MockedBuild.open(projects);
@@ -69,22 +78,22 @@ public class MockedBuilder implements Builder {
     private static final class MockedBuild implements Build {
 
         public static MockedBuild open(List<MockedProject> projects) {
-            return new MockedBuild(projects.stream().collect(toMap(MockedProject::getProjectId, p -> p)));
+            return new MockedBuild(new ConcurrentHashMap<>(projects.stream().collect(toMap(MockedProject::getProjectId, p -> p))));
         }
 
         private final Map<String, MockedProject> projects;
-        private final Map<String, MockedStatus> stuff = new HashMap<>();
+        private final Map<String, MockedVersion> stuff = new ConcurrentHashMap<>();
 
-        private static MockedStatus checkAvailability(MockedStatus status) throws IOException {
+        private static MockedVersion checkAvailability(MockedVersion status) throws IOException {
             if (status == null) {
                 throw new IOException("Status not available");
             }
             return status;
         }
 
-        private MockedStatus initStatus(String x) {
+        private MockedVersion initStatus(String x) {
             try {
-                return MockedStatus.of(projects.get(x).getLatest());
+                return projects.get(x).getLatest();
             } catch (IOException ex) {
                 throw new UncheckedIOException(ex);
             }
@@ -97,30 +106,37 @@ public class MockedBuilder implements Builder {
         @Override
         public void restore(@NonNull Path project) throws IOException {
             checkAvailability(stuff.remove(loadProjectId(project)));
+            Files.deleteIfExists(project.resolve(MODIFIED_FILE));
         }
 
         @Override
         public @Nullable String verify(@NonNull Path project) throws IOException {
-            MockedStatus status = checkAvailability(stuff.get(loadProjectId(project)));
-            Semver original = new Semver(status.getOriginal().getValue());
-            Semver modified = new Semver(status.getModified().getValue());
+            MockedVersion status = checkAvailability(stuff.get(loadProjectId(project)));
+            Semver original = new Semver(status.getValue());
+            Semver modified = new Semver(loadModifiedValue(project, status.getValue()));
             return original.isGreaterThan(modified) || !original.isApiCompatible(modified) ? "boom" : null;
         }
 
+        @Override
+        public @Nullable String verify(@NonNull Path project, @NonNull VerifyOptions options) throws IOException {
+            return verify(project);
+        }
+
         private void setProperty(@NonNull Path project, @NonNull String propertyName, String propertyValue) throws IOException {
             String id = loadProjectId(project);
-            stuff.put(id, stuff.computeIfAbsent(id, this::initStatus).withProperty(propertyName, propertyValue));
+            stuff.computeIfAbsent(id, this::initStatus).withProperty(propertyName, propertyValue);
+            storeModifiedValue(project, propertyValue);
         }
 
         private String getProperty(@NonNull Path project, @NonNull String propertyName) throws IOException {
             String id = loadProjectId(project);
-            return stuff.computeIfAbsent(id, this::initStatus).getProperty(propertyName);
+            return loadModifiedValue(project, stuff.computeIfAbsent(id, this::initStatus).getProperty(propertyName));
         }
 
         @Override
         public @NonNull Version getProjectVersion(@NonNull Path project) throws IOException {
             String id = loadProjectId(project);
-            return stuff.computeIfAbsent(id, this::initStatus).getModified().getVersion().getVersion();
+            return stuff.computeIfAbsent(id, this::initStatus).getVersion().getVersion();
         }
 
         @Override
@@ -142,7 +158,13 @@ public class MockedBuilder implements Builder {
         @Override
         public void checkoutTag(@NonNull Path project, @NonNull Ref ref) throws IOException {
             String id = loadProjectId(project);
-            stuff.put(id, MockedStatus.of(projects.get(id).getByTag(ref)));
+            stuff.put(id, projects.get(id).getByTag(ref));
+        }
+
+        @Override
+        public @NonNull String getCommitId(@NonNull Path project, @NonNull Ref ref) throws IOException {
+            String id = loadProjectId(project);
+            return projects.get(id).getByTag(ref).getVersion().getVersion() + "@" + projects.get(id).getProjectId();
         }
 
         @Override
@@ -157,42 +179,51 @@ public class MockedBuilder implements Builder {
         }
 
         @Override
-        public void clone(@NonNull URI from, @NonNull Path to) throws IOException {
-            if (!"mocked".equals(from.getScheme())) {
-                throw new IOException("Unsupported URI scheme: " + from.getScheme());
+        public @NonNull List<Ref> getRemoteTags(@NonNull URI from) throws IOException {
+            MockedProject project = projects.get(getProjectId(from));
+            if (project == null) {
+                throw new IOException("Project " + from + " not found");
             }
+            return project
+                    .getVersions()
+                    .stream()
+                    .map(MockedVersion::getVersion)
+                    .map(RefVersion::getRef)
+                    .map(Ref::withoutDate)
+                    .collect(toList());
+        }
+
+        @Override
+        public void clone(@NonNull URI from, @NonNull Path to) throws IOException {
+            String fromId = getProjectId(from);
             if (projects.containsKey(loadProjectId(to))) {
                 throw new IOException("Project " + to + " already exists");
             }
             Files.createDirectories(to.resolve("sub-dir"));
-            MockedProject mockedProject = projects.get(from.toString().substring(7));
+            MockedProject mockedProject = projects.get(fromId);
             projects.put(loadProjectId(to), mockedProject);
         }
 
-        @Override
-        public void close() throws IOException {
-        }
-    }
-
-    @lombok.Value
-    private static class MockedStatus {
-
-        public static MockedStatus of(MockedVersion version) {
-            return new MockedStatus(version, version);
+        private static String getProjectId(URI from) throws IOException {
+            switch (from.getScheme()) {
+                case "mocked":
+                    return from.toString().substring(7);
+                case "file":
+                    return loadProjectId(Paths.get(from));
+                default:
+                    throw new IOException("Unsupported URI scheme: " + from.getScheme());
+            }
         }
 
-        @lombok.NonNull
-        MockedVersion original;
-
-        @lombok.NonNull
-        MockedVersion modified;
-
-        public MockedStatus withProperty(String propertyName, String propertyValue) throws IOException {
-            return new MockedStatus(original, modified.withProperty(propertyName, propertyValue));
+        @Override
+        public void mirror(@NonNull URI from, @NonNull Path to) throws IOException {
+            if (!Files.isDirectory(to)) {
+                clone(from, to);
+            }
         }
 
-        public String getProperty(String propertyName) throws IOException {
-            return modified.getProperty(propertyName);
+        @Override
+        public void close() throws IOException {
         }
     }
 
@@ -217,6 +248,18 @@ public class MockedBuilder implements Builder {
         return result;
     }
 
+    private static final String MODIFIED_FILE = "pom.xml";
+
+    private static String loadModifiedValue(Path project, String defaultValue) throws IOException {
+        Path modifiedFile = project.resolve(MODIFIED_FILE);
+        return Files.exists(modifiedFile) ? TextParser.onParsingLines(Collectors.joining()).parsePath(modifiedFile, UTF_8) : defaultValue;
+    }
+
+    private static void storeModifiedValue(Path project, String value) throws IOException {
+        Path modifiedFile = project.resolve(MODIFIED_FILE);
+        TextFormatter.onFormattingWriter((String value1, Writer writer) -> writer.write(value1)).formatPath(value, modifiedFile, UTF_8);
+    }
+
     private static void storeProjectId(String id, Path project) throws IOException {
         Path idFile = project.resolve("id.txt");
         TextFormatter.onFormattingWriter((String id1, Writer writer) -> writer.write(id1)).formatPath(id, idFile, UTF_8);
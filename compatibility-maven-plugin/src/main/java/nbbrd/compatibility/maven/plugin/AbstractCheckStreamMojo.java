@@ -3,6 +3,8 @@ package nbbrd.compatibility.maven.plugin;
 import internal.compatibility.maven.plugin.MojoParameterParsing;
 import lombok.NonNull;
 import nbbrd.compatibility.*;
+import nbbrd.compatibility.spi.Git;
+import nbbrd.compatibility.spi.Maven;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.jspecify.annotations.Nullable;
@@ -31,6 +33,120 @@ abstract class AbstractCheckStreamMojo extends AbstractCompatibilityMojo {
     @Parameter(property = "compatibility.logErrors", defaultValue = "false")
     private boolean logErrors;
 
+    @Parameter(property = "compatibility.threads", defaultValue = "1")
+    private int threads;
+
+    @Parameter(property = "compatibility.cacheDir")
+    private File cacheDir;
+
+    @Parameter(property = "compatibility.cacheSize", defaultValue = "" + Compatibility.DEFAULT_CACHE_SIZE)
+    private int cacheSize;
+
+    @Parameter(property = "compatibility.clearCache", defaultValue = "false")
+    private boolean clearCache;
+
+    @Parameter(property = "compatibility.journalFile")
+    private File journalFile;
+
+    @Parameter(property = "compatibility.resume", defaultValue = "false")
+    private boolean resume;
+
+    @Parameter(property = "compatibility.mirrorDir")
+    private File mirrorDir;
+
+    @Parameter(property = "compatibility.mirrorSize", defaultValue = "" + Compatibility.DEFAULT_MIRROR_SIZE)
+    private long mirrorSize;
+
+    @Parameter(property = "compatibility.cloneStrategy", defaultValue = "FULL")
+    private Git.CloneStrategy cloneStrategy;
+
+    @Parameter(property = "compatibility.poolDir")
+    private File poolDir;
+
+    @Parameter(property = "compatibility.poolSize", defaultValue = "" + Compatibility.DEFAULT_POOL_SIZE)
+    private long poolSize;
+
+    @Parameter(property = "compatibility.outputDir")
+    private File outputDir;
+
+    @Parameter(property = "compatibility.logDir")
+    private File logDir;
+
+    @Parameter(property = "compatibility.verification", defaultValue = "VERIFY")
+    private Maven.Verification verification;
+
+    @Parameter(property = "compatibility.escalation", defaultValue = "false")
+    private boolean escalation;
+
+    @Parameter(property = "compatibility.buildCacheDir")
+    private File buildCacheDir;
+
+    @Parameter(property = "compatibility.affectedModulesOnly", defaultValue = "false")
+    private boolean affectedModulesOnly;
+
+    @Parameter(property = "compatibility.reactorThreads")
+    private String reactorThreads;
+
+    @MojoParameterParsing
+    @Override
+    protected @NonNull Compatibility toCompatibility() {
+        return super.toCompatibility()
+                .toBuilder()
+                .threads(threads)
+                .cacheDir(toCacheDir())
+                .cacheSize(cacheSize)
+                .journalFile(toJournalFile())
+                .resume(resume)
+                .mirrorDir(toMirrorDir())
+                .mirrorSize(mirrorSize)
+                .cloneStrategy(cloneStrategy)
+                .poolDir(toPoolDir())
+                .poolSize(poolSize)
+                .outputDir(toOutputDir())
+                .logDir(toLogDir())
+                .verification(verification)
+                .escalation(escalation)
+                .buildCacheDir(toBuildCacheDir())
+                .affectedModulesOnly(affectedModulesOnly)
+                .reactorThreads(reactorThreads)
+                .build();
+    }
+
+    @MojoParameterParsing
+    protected @Nullable Path toCacheDir() {
+        return cacheDir != null ? cacheDir.toPath() : null;
+    }
+
+    @MojoParameterParsing
+    protected @Nullable Path toMirrorDir() {
+        return mirrorDir != null ? mirrorDir.toPath() : null;
+    }
+
+    @MojoParameterParsing
+    protected @Nullable Path toPoolDir() {
+        return poolDir != null ? poolDir.toPath() : null;
+    }
+
+    @MojoParameterParsing
+    protected @Nullable Path toOutputDir() {
+        return outputDir != null ? outputDir.toPath() : null;
+    }
+
+    @MojoParameterParsing
+    protected @Nullable Path toLogDir() {
+        return logDir != null ? logDir.toPath() : null;
+    }
+
+    @MojoParameterParsing
+    protected @Nullable Path toBuildCacheDir() {
+        return buildCacheDir != null ? buildCacheDir.toPath() : null;
+    }
+
+    @MojoParameterParsing
+    protected @Nullable Path toJournalFile() {
+        return journalFile != null ? Paths.get(fixUnresolvedProperties(journalFile.toURI())) : null;
+    }
+
     @MojoParameterParsing
     protected @NonNull Path toJobFile() {
         return Paths.get(fixUnresolvedProperties(jobFile.toURI()));
@@ -54,6 +170,10 @@ abstract class AbstractCheckStreamMojo extends AbstractCompatibilityMojo {
             return;
         }
 
+        if (clearCache) {
+            clearCache(compatibility);
+        }
+
         Report output = check(compatibility, input);
 
         logReport(output);
@@ -70,6 +190,14 @@ abstract class AbstractCheckStreamMojo extends AbstractCompatibilityMojo {
         }
     }
 
+    private static void clearCache(Compatibility compatibility) throws MojoExecutionException {
+        try {
+            compatibility.clearCache();
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to clear cache", ex);
+        }
+    }
+
     static @Nullable LocalDate parseLocalDate(@Nullable String text) throws MojoExecutionException {
         if (text == null || text.isEmpty()) {
             return null;
@@ -32,13 +32,20 @@ abstract class AbstractCompatibilityMojo extends AbstractMojo {
     @Parameter(property = "compatibility.workingDir", defaultValue = "${java.io.tmpdir}")
     private File workingDir;
 
+    @Parameter(property = "compatibility.builder")
+    private String builder;
+
+    @Parameter(property = "compatibility.fastStart", defaultValue = "false")
+    private boolean fastStart;
+
     @MojoParameterParsing
     protected @NonNull Compatibility toCompatibility() {
-        return Compatibility.ofServiceLoader()
+        return (builder != null ? Compatibility.ofServiceLoader(builder) : Compatibility.ofServiceLoader())
                 .toBuilder()
                 .onEvent(getLog()::info)
                 .onDebug(getLog()::debug)
                 .workingDir(toWorkingDir())
+                .fastStart(fastStart)
                 .build();
     }
 